@@ -0,0 +1,63 @@
+package me.touchie771.voting.benchmark;
+
+import me.touchie771.voting.utils.PollManager;
+import me.touchie771.voting.utils.VotingMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds polls and voters for benchmarks without a running server.
+ * Voters are plain UUIDs, so no Bukkit {@code Player} is needed.
+ */
+final class BenchmarkPolls {
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    private static final UUID CREATOR = UUID.randomUUID();
+
+    private BenchmarkPolls() {}
+
+    /**
+     * Creates and registers a poll with a unique custom ID that stays open for the whole run.
+     */
+    static PollManager.Poll newStartedPoll(int optionCount) {
+        return newStartedPoll(optionCount, VotingMode.SINGLE);
+    }
+
+    static PollManager.Poll newStartedPoll(int optionCount, VotingMode mode) {
+        List<String> options = new ArrayList<>(optionCount);
+        for (int i = 0; i < optionCount; i++) {
+            options.add("Option " + (i + 1));
+        }
+
+        PollManager.Poll poll = PollManager.getBuilder()
+                .customId("bench-" + COUNTER.incrementAndGet())
+                .name("Benchmark poll")
+                .duration(24 * 60 * 60 * 1000L)
+                .creator(CREATOR, "Benchmark")
+                .options(options)
+                .mode(mode)
+                .build();
+        PollManager.startPoll(poll.getCustomId());
+        return poll;
+    }
+
+    static UUID[] voters(int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID[] voters = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            voters[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+        return voters;
+    }
+
+    static void fill(PollManager.Poll poll, UUID[] voters) {
+        int options = poll.getOptions().size();
+        for (int i = 0; i < voters.length; i++) {
+            poll.vote(voters[i], i % options);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package me.touchie771.voting.benchmark;
+
+import me.touchie771.voting.utils.MessageTemplate;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering a message with placeholders from a {@link MessageTemplate} against parsing
+ * the MiniMessage markup on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageTemplateBenchmark {
+
+    private static final String MARKUP =
+            "<yellow>Poll </yellow><white><poll_id></white><yellow> is still loading, please try again in a moment.</yellow>";
+
+    private final MessageTemplate template = MessageTemplate.of(MARKUP);
+    private final MiniMessage miniMessage = MiniMessage.miniMessage();
+    private final TagResolver pollId = Placeholder.unparsed("poll_id", "best-food");
+
+    @Benchmark
+    public Component template() {
+        return template.render(pollId);
+    }
+
+    @Benchmark
+    public Component parseEveryCall() {
+        return miniMessage.deserialize(MARKUP, pollId);
+    }
+}
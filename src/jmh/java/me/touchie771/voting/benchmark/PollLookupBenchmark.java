@@ -0,0 +1,68 @@
+package me.touchie771.voting.benchmark;
+
+import me.touchie771.voting.utils.PollManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code PollManager.getPollById} for each kind of ID and poll ID tab completion
+ * with 10k registered polls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PollLookupBenchmark {
+
+    private static final int POLLS = 10_000;
+
+    private String[] customIds;
+    private String[] uuids;
+    private String[] shortIds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        customIds = new String[POLLS];
+        uuids = new String[POLLS];
+        shortIds = new String[POLLS];
+        for (int i = 0; i < POLLS; i++) {
+            PollManager.Poll poll = BenchmarkPolls.newStartedPoll(2);
+            customIds[i] = poll.getCustomId();
+            uuids[i] = poll.getId().toString();
+            shortIds[i] = poll.getShortId();
+        }
+    }
+
+    @Benchmark
+    public Optional<PollManager.Poll> byCustomId() {
+        return PollManager.getPollById(customIds[ThreadLocalRandom.current().nextInt(POLLS)]);
+    }
+
+    @Benchmark
+    public Optional<PollManager.Poll> byUuid() {
+        return PollManager.getPollById(uuids[ThreadLocalRandom.current().nextInt(POLLS)]);
+    }
+
+    @Benchmark
+    public Optional<PollManager.Poll> byShortId() {
+        return PollManager.getPollById(shortIds[ThreadLocalRandom.current().nextInt(POLLS)]);
+    }
+
+    @Benchmark
+    public Optional<PollManager.Poll> miss() {
+        return PollManager.getPollById("no-such-poll");
+    }
+
+    @Benchmark
+    public List<String> completeActive() {
+        return PollManager.completePollIds("bench-1", true, 50);
+    }
+
+    @Benchmark
+    public List<String> completeAll() {
+        return PollManager.completePollIds("bench-", false, 50);
+    }
+}
@@ -0,0 +1,100 @@
+package me.touchie771.voting.benchmark;
+
+import me.touchie771.voting.utils.BinaryPollFormat;
+import me.touchie771.voting.utils.JsonPollFormat;
+import me.touchie771.voting.utils.PollFormat;
+import me.touchie771.voting.utils.PollManager;
+import me.touchie771.voting.utils.PollSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Measures writing and reading the poll files with large datasets.
+ * Saves only rewrite polls that changed, so they are measured with one changed poll and with all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class PollSerializerBenchmark {
+
+    @Param({"100", "1000"})
+    public int polls;
+
+    @Param({"100", "1000"})
+    public int votersPerPoll;
+
+    @Param({"json-pretty", "json", "binary"})
+    public String format;
+
+    private File dataFolder;
+    private PollSerializer serializer;
+    private List<PollManager.Poll> pollList;
+    private final UUID voter = UUID.randomUUID();
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dataFolder = Files.createTempDirectory("voting-bench").toFile();
+        Logger logger = Logger.getLogger("VotingBenchmark");
+        logger.setLevel(java.util.logging.Level.WARNING);
+        PollFormat pollFormat = switch (format) {
+            case "json-pretty" -> new JsonPollFormat(true);
+            case "json" -> new JsonPollFormat(false);
+            default -> new BinaryPollFormat();
+        };
+        serializer = new PollSerializer(dataFolder, logger, pollFormat);
+
+        pollList = new ArrayList<>(polls);
+        for (int i = 0; i < polls; i++) {
+            PollManager.Poll poll = BenchmarkPolls.newStartedPoll(4);
+            BenchmarkPolls.fill(poll, BenchmarkPolls.voters(votersPerPoll));
+            pollList.add(poll);
+        }
+        serializer.savePolls(pollList);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dataFolder.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public boolean saveOneChanged() {
+        change(pollList.get(round % polls));
+        return serializer.savePolls(pollList);
+    }
+
+    @Benchmark
+    public boolean saveAllChanged() {
+        for (PollManager.Poll poll : pollList) {
+            change(poll);
+        }
+        return serializer.savePolls(pollList);
+    }
+
+    private void change(PollManager.Poll poll) {
+        // Alternates the option so every call really changes the poll
+        poll.vote(voter, round++ & 1);
+    }
+
+    @Benchmark
+    public void load(Blackhole blackhole) {
+        serializer.loadPolls(blackhole::consume, false);
+    }
+}
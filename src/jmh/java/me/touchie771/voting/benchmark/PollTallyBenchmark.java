@@ -0,0 +1,48 @@
+package me.touchie771.voting.benchmark;
+
+import me.touchie771.voting.utils.PollManager;
+import me.touchie771.voting.utils.PollResults;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading the results of a poll with a large number of voters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PollTallyBenchmark {
+
+    private static final int OPTIONS = 5;
+
+    @Param({"10000", "100000", "1000000"})
+    public int voters;
+
+    private PollManager.Poll poll;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        poll = BenchmarkPolls.newStartedPoll(OPTIONS);
+        BenchmarkPolls.fill(poll, BenchmarkPolls.voters(voters));
+    }
+
+    @Benchmark
+    public void voteCounts(Blackhole blackhole) {
+        for (int i = 0; i < OPTIONS; i++) {
+            blackhole.consume(poll.getVoteCount(i));
+        }
+    }
+
+    @Benchmark
+    public int totalVotes() {
+        return poll.getTotalVotes();
+    }
+
+    @Benchmark
+    public PollResults results() {
+        // Unchanged between calls, so this measures returning the published snapshot
+        return poll.getResults();
+    }
+}
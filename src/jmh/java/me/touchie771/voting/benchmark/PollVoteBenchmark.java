@@ -0,0 +1,62 @@
+package me.touchie771.voting.benchmark;
+
+import me.touchie771.voting.utils.PollManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code Poll.vote} and {@code Poll.unvote} when many threads hit the same poll.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PollVoteBenchmark {
+
+    private static final int VOTERS = 65_536;
+    private static final int OPTIONS = 4;
+
+    private PollManager.Poll poll;
+    private UUID[] voters;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        poll = BenchmarkPolls.newStartedPoll(OPTIONS);
+        voters = BenchmarkPolls.voters(VOTERS);
+        BenchmarkPolls.fill(poll, voters);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next = ThreadLocalRandom.current().nextInt(VOTERS);
+
+        int advance() {
+            next = (next + 1) & (VOTERS - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean vote(Cursor cursor) {
+        int i = cursor.advance();
+        return poll.vote(voters[i], i % OPTIONS);
+    }
+
+    @Benchmark
+    @Group("voteAndUnvote")
+    @GroupThreads(4)
+    public boolean contendedVote(Cursor cursor) {
+        int i = cursor.advance();
+        return poll.vote(voters[i], i % OPTIONS);
+    }
+
+    @Benchmark
+    @Group("voteAndUnvote")
+    @GroupThreads(4)
+    public boolean contendedUnvote(Cursor cursor) {
+        return poll.unvote(voters[cursor.advance()]);
+    }
+}
@@ -0,0 +1,100 @@
+package me.touchie771.voting.benchmark;
+
+import me.touchie771.voting.utils.Ballot;
+import me.touchie771.voting.utils.PollManager;
+import me.touchie771.voting.utils.PollResults;
+import me.touchie771.voting.utils.VotingMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the instant-runoff count of a ranked poll. {@code recountEveryBallot} is the baseline
+ * of running the runoff over every stored ballot, as a count without the distinct-ballot histogram
+ * would have to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RankedTallyBenchmark {
+
+    private static final int OPTIONS = 5;
+
+    @Param({"10000", "100000"})
+    public int ballots;
+
+    private PollManager.Poll poll;
+    private int[] castBallots;
+    private UUID changingVoter;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        poll = BenchmarkPolls.newStartedPoll(OPTIONS, VotingMode.RANKED);
+        UUID[] voters = BenchmarkPolls.voters(ballots);
+        castBallots = new int[ballots];
+        Random random = new Random(42);
+        for (int i = 0; i < ballots; i++) {
+            castBallots[i] = randomRanking(random);
+            poll.castBallot(voters[i], castBallots[i]);
+        }
+        changingVoter = voters[0];
+        poll.getResults();
+    }
+
+    @Benchmark
+    public PollResults cachedResults() {
+        // Unchanged between calls, so this measures returning the published snapshot
+        return poll.getResults();
+    }
+
+    @Benchmark
+    public PollResults resultsAfterBallotChange() {
+        // One changed ranking invalidates the cached runoff
+        poll.castBallot(changingVoter, castBallots[round++ & 1]);
+        return poll.getResults();
+    }
+
+    @Benchmark
+    public int recountEveryBallot() {
+        boolean[] eliminated = new boolean[OPTIONS];
+        while (true) {
+            int[] totals = new int[OPTIONS];
+            for (int ballot : castBallots) {
+                for (int rank = 0; rank < Ballot.MAX_PREFERENCES; rank++) {
+                    int option = Ballot.preference(ballot, rank);
+                    if (option < 0) break;
+                    if (!eliminated[option]) {
+                        totals[option]++;
+                        break;
+                    }
+                }
+            }
+            int continuing = 0;
+            int leader = -1;
+            int last = -1;
+            for (int option = 0; option < OPTIONS; option++) {
+                if (eliminated[option]) continue;
+                continuing += totals[option];
+                if (leader < 0 || totals[option] > totals[leader]) leader = option;
+                if (last < 0 || totals[option] <= totals[last]) last = option;
+            }
+            if (continuing == 0 || 2L * totals[leader] > continuing) {
+                return leader;
+            }
+            eliminated[last] = true;
+        }
+    }
+
+    private static int randomRanking(Random random) {
+        List<Integer> options = new ArrayList<>(List.of(0, 1, 2, 3, 4));
+        // Evenly spread and often partial, so the runoff takes several rounds and exhausts ballots
+        Collections.shuffle(options, random);
+        return Ballot.ranking(options.subList(0, 1 + random.nextInt(OPTIONS)));
+    }
+}
@@ -1,7 +1,12 @@
 package me.touchie771.voting;
 
 import me.touchie771.voting.commands.PollCommand;
+import me.touchie771.voting.commands.PollTabCompleteListener;
+import me.touchie771.voting.utils.LiveResultsDisplay;
 import me.touchie771.voting.utils.PollManager;
+import me.touchie771.voting.utils.PollMetrics;
+import me.touchie771.voting.utils.RateLimiter;
+import me.touchie771.voting.utils.SchedulerUtil;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.Objects;
@@ -10,16 +15,23 @@ public final class Voting extends JavaPlugin {
 
     @Override
     public void onEnable() {
+        saveDefaultConfig();
+        SchedulerUtil.initialize(this);
+        PollMetrics.initialize(this);
         PollManager.initialize(this);
-        PollCommand pollCommand = new PollCommand();
+        LiveResultsDisplay.initialize(this);
+        PollCommand pollCommand = new PollCommand(RateLimiter.fromConfig(getConfig().getConfigurationSection("rate-limits")));
         if (getCommand("poll") != null) {
             Objects.requireNonNull(getCommand("poll")).setExecutor(pollCommand);
             Objects.requireNonNull(getCommand("poll")).setTabCompleter(pollCommand);
         }
+        getServer().getPluginManager().registerEvents(new PollTabCompleteListener(pollCommand), this);
     }
 
     @Override
     public void onDisable() {
-        PollManager.savePolls();
+        LiveResultsDisplay.shutdown();
+        PollManager.shutdown();
+        PollMetrics.shutdown();
     }
 }
\ No newline at end of file
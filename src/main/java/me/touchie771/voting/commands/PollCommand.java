@@ -2,6 +2,10 @@ package me.touchie771.voting.commands;
 
 import me.touchie771.voting.commands.poll.*;
 import me.touchie771.voting.utils.MessageUtil;
+import me.touchie771.voting.utils.Messages;
+import me.touchie771.voting.utils.PollMetrics;
+import me.touchie771.voting.utils.RateLimiter;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -14,11 +18,16 @@ import java.util.stream.Collectors;
 
 public class PollCommand implements CommandExecutor, TabCompleter {
     
-    private static final List<String> SUBCOMMANDS = Arrays.asList("create", "start", "stop", "vote", "unvote", "stats", "list");
+    private static final List<String> SUBCOMMANDS = Arrays.asList("create", "start", "stop", "vote", "unvote", "stats", "list", "watch", "metrics");
     
     private final Map<String, PollSubcommand> subcommands = new HashMap<>();
+    private final Map<String, RateLimiter> rateLimiters;
     
-    public PollCommand() {
+    /**
+     * @param rateLimiters per-player limiters by subcommand name, consulted before dispatching
+     */
+    public PollCommand(Map<String, RateLimiter> rateLimiters) {
+        this.rateLimiters = Map.copyOf(rateLimiters);
         registerSubcommands();
     }
     
@@ -30,6 +39,8 @@ public class PollCommand implements CommandExecutor, TabCompleter {
         subcommands.put("unvote", new UnvotePollSubcommand());
         subcommands.put("stats", new StatsPollSubcommand());
         subcommands.put("list", new ListPollSubcommand());
+        subcommands.put("watch", new WatchPollSubcommand());
+        subcommands.put("metrics", new MetricsPollSubcommand());
     }
 
     @Override
@@ -40,12 +51,12 @@ public class PollCommand implements CommandExecutor, TabCompleter {
         }
 
         if (!player.hasPermission("voting.poll")) {
-            MessageUtil.sendMessage(player, "<red>You don't have permission to use this command.</red>");
+            MessageUtil.sendMessage(player, Messages.NO_PERMISSION);
             return true;
         }
         
         if (args.length == 0) {
-            MessageUtil.sendMessage(player, "<red>Usage: /poll <create|start|stop|vote|unvote|stats|list></red>");
+            MessageUtil.sendMessage(player, Messages.POLL_USAGE);
             return true;
         }
         
@@ -53,16 +64,50 @@ public class PollCommand implements CommandExecutor, TabCompleter {
         PollSubcommand handler = subcommands.get(subcommand);
         
         if (handler == null) {
-            MessageUtil.sendMessage(player, "<red>Unknown subcommand: </red><white>" + subcommand + "</white>");
-            MessageUtil.sendMessage(player, "<red>Usage: /poll <create|start|stop|vote|unvote|stats|list></red>");
+            MessageUtil.lines()
+                    .add(Messages.UNKNOWN_SUBCOMMAND, Placeholder.unparsed("subcommand", subcommand))
+                    .add(Messages.POLL_USAGE)
+                    .send(player);
             return true;
         }
+
+        RateLimiter limiter = rateLimiters.get(subcommand);
+        if (limiter != null) {
+            long waitMillis = limiter.tryAcquire(player.getUniqueId());
+            if (waitMillis > 0) {
+                PollMetrics.RATE_LIMITED.increment();
+                MessageUtil.sendMessage(player, Messages.RATE_LIMITED,
+                        Placeholder.unparsed("seconds", String.valueOf((waitMillis + 999) / 1000)));
+                return true;
+            }
+        }
         
-        return handler.execute(player, args);
+        long start = System.nanoTime();
+        try {
+            return handler.execute(player, args);
+        } finally {
+            PollMetrics.command(subcommand).recordSince(start);
+        }
     }
     
+    /**
+     * Synchronous fallback, only used when completions were not already provided by
+     * {@link PollTabCompleteListener} off the main thread.
+     */
     @Override
     public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String alias, String[] args) {
+        return complete(sender, args);
+    }
+
+    /**
+     * Returns the completions for the given arguments. Only reads thread-safe poll state,
+     * so it may be called from any thread.
+     *
+     * @param sender the sender requesting completions
+     * @param args the arguments typed after the command label
+     * @return the suggestions
+     */
+    public List<String> complete(CommandSender sender, String[] args) {
         if (!(sender instanceof Player player)) return new ArrayList<>();
 
         if (!player.hasPermission("voting.poll")) return new ArrayList<>();
@@ -70,6 +115,7 @@ public class PollCommand implements CommandExecutor, TabCompleter {
         if (args.length == 1) {
             return SUBCOMMANDS.stream()
                     .filter(sub -> sub.toLowerCase().startsWith(args[0].toLowerCase()))
+                    .filter(sub -> !sub.equals("metrics") || player.hasPermission(MetricsPollSubcommand.PERMISSION))
                     .collect(Collectors.toList());
         }
         
@@ -0,0 +1,40 @@
+package me.touchie771.voting.commands;
+
+import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+
+import java.util.Set;
+
+/**
+ * Provides /poll completions from Paper's asynchronous tab completion event, so they are
+ * computed off the main thread. Marking the event as handled skips the synchronous
+ * {@link PollCommand#onTabComplete} path.
+ */
+public class PollTabCompleteListener implements Listener {
+
+    private static final Set<String> LABELS = Set.of("poll", "voting:poll");
+
+    private final PollCommand pollCommand;
+
+    public PollTabCompleteListener(PollCommand pollCommand) {
+        this.pollCommand = pollCommand;
+    }
+
+    @EventHandler(ignoreCancelled = true)
+    public void onAsyncTabComplete(AsyncTabCompleteEvent event) {
+        if (!event.isCommand() || event.isHandled()) return;
+
+        String buffer = event.getBuffer();
+        int start = buffer.startsWith("/") ? 1 : 0;
+        int labelEnd = buffer.indexOf(' ', start);
+        // Still typing the label itself, leave that to the server
+        if (labelEnd < 0) return;
+        if (!LABELS.contains(buffer.substring(start, labelEnd).toLowerCase())) return;
+
+        // Keep a trailing empty argument, it means the player is starting a new one
+        String[] args = buffer.substring(labelEnd + 1).split(" ", -1);
+        event.setCompletions(pollCommand.complete(event.getSender(), args));
+        event.setHandled(true);
+    }
+}
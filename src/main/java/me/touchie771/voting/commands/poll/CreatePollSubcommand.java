@@ -3,6 +3,11 @@ package me.touchie771.voting.commands.poll;
 import me.touchie771.voting.utils.PollManager;
 import me.touchie771.voting.utils.ArgumentParser;
 import me.touchie771.voting.utils.MessageUtil;
+import me.touchie771.voting.utils.SchedulerUtil;
+import me.touchie771.voting.utils.Messages;
+import me.touchie771.voting.utils.VotingMode;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import org.bukkit.entity.Player;
 
 import java.util.Arrays;
@@ -10,15 +15,17 @@ import java.util.List;
 
 /**
  * Handles the /poll create subcommand.
- * Usage: /poll create <id> "question" "option1, option2, option3"
+ * Usage: /poll create <id> "question" "option1, option2, option3" [single|weighted|ranked]
  */
 public class CreatePollSubcommand implements PollSubcommand {
     
     @Override
     public boolean execute(Player player, String[] args) {
         if (args.length < 4) {
-            MessageUtil.sendMessage(player, "<red>Usage: /poll create <id> \"question\" \"option1, option2, option3\"</red>");
-            MessageUtil.sendMessage(player, "<gray>ID must be 3-16 characters: lowercase letters, numbers, underscores, and hyphens only</gray>");
+            MessageUtil.lines()
+                    .add(Messages.CREATE_USAGE)
+                    .add(Messages.CREATE_ID_RULES)
+                    .send(player);
             return true;
         }
         
@@ -27,15 +34,19 @@ public class CreatePollSubcommand implements PollSubcommand {
         String question = questionResult.value().trim();
         
         if (question.isEmpty()) {
-            MessageUtil.sendMessage(player, "<red>Question cannot be empty!</red>");
-            MessageUtil.sendMessage(player, "<gray>Usage: /poll create <id> \"question\" \"option1, option2, option3\"</gray>");
+            MessageUtil.lines()
+                    .add(Messages.CREATE_EMPTY_QUESTION)
+                    .add(Messages.CREATE_USAGE_HINT)
+                    .send(player);
             return true;
         }
         
         int optionsStartIndex = 2 + questionResult.argsConsumed();
         if (optionsStartIndex >= args.length) {
-            MessageUtil.sendMessage(player, "<red>Missing options argument!</red>");
-            MessageUtil.sendMessage(player, "<gray>Usage: /poll create <id> \"question\" \"option1, option2, option3\"</gray>");
+            MessageUtil.lines()
+                    .add(Messages.CREATE_MISSING_OPTIONS)
+                    .add(Messages.CREATE_USAGE_HINT)
+                    .send(player);
             return true;
         }
         
@@ -43,8 +54,10 @@ public class CreatePollSubcommand implements PollSubcommand {
         String optionsStr = optionsResult.value().trim();
         
         if (optionsStr.isEmpty()) {
-            MessageUtil.sendMessage(player, "<red>Options cannot be empty!</red>");
-            MessageUtil.sendMessage(player, "<gray>Usage: /poll create <id> \"question\" \"option1, option2, option3\"</gray>");
+            MessageUtil.lines()
+                    .add(Messages.CREATE_EMPTY_OPTIONS)
+                    .add(Messages.CREATE_USAGE_HINT)
+                    .send(player);
             return true;
         }
         
@@ -54,35 +67,63 @@ public class CreatePollSubcommand implements PollSubcommand {
                 .toList();
         
         if (optionList.size() < 2) {
-            MessageUtil.sendMessage(player, "<red>Poll must have at least 2 options separated by commas!</red>");
-            MessageUtil.sendMessage(player, "<gray>Usage: /poll create <id> \"question\" \"option1, option2, option3\"</gray>");
-            MessageUtil.sendMessage(player, "<gray>ID must be 3-16 characters: lowercase letters, numbers, underscores, and hyphens only</gray>");
+            MessageUtil.lines()
+                    .add(Messages.CREATE_TOO_FEW_OPTIONS)
+                    .add(Messages.CREATE_USAGE_HINT)
+                    .add(Messages.CREATE_ID_RULES)
+                    .send(player);
             return true;
         }
 
-        try {
-            PollManager.Poll poll = PollManager.getBuilder()
-                    .customId(pollId)
-                    .name(question)
-                    .duration(5 * 60 * 1000L)
-                    .creator(player)
-                    .options(optionList)
-                    .build();
-
-            MessageUtil.sendMessage(player, "<green>Poll created successfully!</green>");
-            MessageUtil.sendMessage(player, "<gray>Poll ID: </gray><white>" + poll.getCustomId() + "</white>");
-            MessageUtil.sendMessage(player, "<gray>Question: </gray><white>" + question + "</white>");
-            MessageUtil.sendMessage(player, "<gray>Use </gray><yellow>/poll start " + poll.getCustomId() + "</yellow><gray> to begin voting.</gray>");
-        } catch (IllegalArgumentException e) {
-            MessageUtil.sendMessage(player, "<red>Error: </red><white>" + e.getMessage() + "</white>");
+        VotingMode mode = VotingMode.SINGLE;
+        int modeIndex = optionsStartIndex + optionsResult.argsConsumed();
+        if (modeIndex < args.length) {
+            mode = VotingMode.fromName(args[modeIndex]);
+            if (mode == null) {
+                MessageUtil.lines()
+                        .add(Messages.CREATE_INVALID_MODE, Placeholder.unparsed("mode", args[modeIndex]))
+                        .add(Messages.CREATE_USAGE_HINT)
+                        .send(player);
+                return true;
+            }
         }
+
+        PollManager.PollBuilder builder = PollManager.getBuilder()
+                .customId(pollId)
+                .name(question)
+                .duration(5 * 60 * 1000L)
+                .creator(player)
+                .options(optionList)
+                .mode(mode);
+
+        // Built on the global region thread, so two players can never claim the same ID at once
+        SchedulerUtil.runGlobal(() -> {
+            try {
+                PollManager.Poll poll = builder.build();
+                SchedulerUtil.runForPlayer(player, () -> {
+                    TagResolver id = Placeholder.unparsed("poll_id", poll.getCustomId());
+                    MessageUtil.Lines lines = MessageUtil.lines()
+                            .add(Messages.CREATE_SUCCESS)
+                            .add(Messages.CREATE_POLL_ID, id)
+                            .add(Messages.CREATE_QUESTION, Placeholder.unparsed("question", question));
+                    if (poll.getMode() != VotingMode.SINGLE) {
+                        lines.add(Messages.CREATE_MODE, Placeholder.unparsed("mode", poll.getMode().displayName()));
+                    }
+                    lines.add(Messages.CREATE_START_HINT, id)
+                            .send(player);
+                });
+            } catch (IllegalArgumentException e) {
+                SchedulerUtil.runForPlayer(player, () ->
+                        MessageUtil.sendMessage(player, Messages.CREATE_ERROR, Placeholder.unparsed("error", e.getMessage())));
+            }
+        });
         
         return true;
     }
     
     @Override
     public String getUsage() {
-        return "/poll create <id> \"question\" \"option1, option2, option3\"";
+        return "/poll create <id> \"question\" \"option1, option2, option3\" [single|weighted|ranked]";
     }
     
     @Override
@@ -2,37 +2,70 @@ package me.touchie771.voting.commands.poll;
 
 import me.touchie771.voting.utils.PollManager;
 import me.touchie771.voting.utils.MessageUtil;
+import me.touchie771.voting.utils.Messages;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import org.bukkit.entity.Player;
 
 import java.util.List;
 
 /**
  * Handles the /poll list subcommand.
- * Usage: /poll list
+ * Usage: /poll list [page]
  */
 public class ListPollSubcommand implements PollSubcommand {
     
+    private static final int PAGE_SIZE = 10;
+    
     @Override
     public boolean execute(Player player, String[] args) {
-        List<PollManager.Poll> playerPolls = PollManager.getPollsByCreator(player);
+        int pageNumber = 1;
+        if (args.length >= 2) {
+            try {
+                pageNumber = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                MessageUtil.sendMessage(player, Messages.LIST_PAGE_NOT_A_NUMBER);
+                return true;
+            }
+            if (pageNumber < 1) {
+                MessageUtil.sendMessage(player, Messages.LIST_PAGE_NOT_POSITIVE);
+                return true;
+            }
+        }
+        
+        PollManager.PollPage page = PollManager.getPollsByCreator(player, pageNumber - 1, PAGE_SIZE);
+        
+        if (page.totalPolls() == 0) {
+            MessageUtil.sendMessage(player, Messages.LIST_EMPTY);
+            return true;
+        }
         
-        if (playerPolls.isEmpty()) {
-            MessageUtil.sendMessage(player, "<gray>You haven't created any polls.</gray>");
+        TagResolver pages = Placeholder.unparsed("pages", String.valueOf(page.totalPages()));
+        if (page.polls().isEmpty()) {
+            MessageUtil.sendMessage(player, Messages.LIST_PAGE_OUT_OF_RANGE,
+                    Placeholder.unparsed("page", String.valueOf(pageNumber)), pages);
             return true;
         }
         
-        MessageUtil.sendMessage(player, "<gold>=== Your Polls ===</gold>");
-        for (PollManager.Poll poll : playerPolls) {
-            String status = poll.isActive() ? "<green>Active</green>" : "<red>Inactive</red>";
-            MessageUtil.sendMessage(player, "<gray>" + poll.getShortId() + " - </gray>" + status + "<gray> - </gray><white>" + poll.getName() + "</white>");
+        MessageUtil.Lines lines = MessageUtil.lines()
+                .add(Messages.LIST_HEADER, Placeholder.unparsed("page", String.valueOf(pageNumber)), pages);
+        for (PollManager.Poll poll : page.polls()) {
+            lines.add(poll.isActive() ? Messages.LIST_ENTRY_ACTIVE : Messages.LIST_ENTRY_INACTIVE,
+                    Placeholder.unparsed("poll_id", poll.getShortId()),
+                    Placeholder.unparsed("question", poll.getName()));
+        }
+        
+        if (pageNumber < page.totalPages()) {
+            lines.add(Messages.LIST_NEXT_PAGE, Placeholder.unparsed("page", String.valueOf(pageNumber + 1)));
         }
+        lines.send(player);
         
         return true;
     }
     
     @Override
     public String getUsage() {
-        return "/poll list";
+        return "/poll list [page]";
     }
     
     @Override
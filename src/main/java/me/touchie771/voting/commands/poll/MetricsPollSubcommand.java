@@ -0,0 +1,93 @@
+package me.touchie771.voting.commands.poll;
+
+import me.touchie771.voting.utils.MessageUtil;
+import me.touchie771.voting.utils.Messages;
+import me.touchie771.voting.utils.PollManager;
+import me.touchie771.voting.utils.PollMetrics;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Handles the /poll metrics subcommand, which shows what the plugin is doing and what it costs.
+ * Usage: /poll metrics
+ */
+public class MetricsPollSubcommand implements PollSubcommand {
+
+    public static final String PERMISSION = "voting.admin";
+
+    @Override
+    public boolean execute(Player player, String[] args) {
+        if (!player.hasPermission(PERMISSION)) {
+            MessageUtil.sendMessage(player, Messages.NO_PERMISSION);
+            return true;
+        }
+
+        MessageUtil.Lines lines = MessageUtil.lines()
+                .add(Messages.METRICS_HEADER)
+                .add(Messages.METRICS_POLLS,
+                        Placeholder.unparsed("polls", String.valueOf(PollManager.getPollCount())),
+                        Placeholder.unparsed("active", String.valueOf(PollManager.getActivePollCount())))
+                .add(Messages.METRICS_CHANGES,
+                        Placeholder.unparsed("votes", String.valueOf(PollMetrics.VOTES.sum())),
+                        Placeholder.unparsed("unvotes", String.valueOf(PollMetrics.UNVOTES.sum())),
+                        Placeholder.unparsed("creates", String.valueOf(PollMetrics.CREATES.sum())),
+                        Placeholder.unparsed("rejected", String.valueOf(PollMetrics.REJECTED_VOTES.sum())),
+                        Placeholder.unparsed("limited", String.valueOf(PollMetrics.RATE_LIMITED.sum())),
+                        Placeholder.unparsed("remote", String.valueOf(PollMetrics.REMOTE_CHANGES.sum())))
+                .add(Messages.METRICS_LOOKUPS,
+                        Placeholder.unparsed("custom", String.valueOf(PollMetrics.LOOKUPS_CUSTOM_ID.sum())),
+                        Placeholder.unparsed("uuid", String.valueOf(PollMetrics.LOOKUPS_UUID.sum())),
+                        Placeholder.unparsed("short", String.valueOf(PollMetrics.LOOKUPS_SHORT_ID.sum())),
+                        Placeholder.unparsed("missed", String.valueOf(PollMetrics.LOOKUPS_MISSED.sum())))
+                .add(Messages.METRICS_QUEUES,
+                        Placeholder.unparsed("votes", String.valueOf(PollManager.voteQueueDepth())),
+                        Placeholder.unparsed("writes", String.valueOf(PollManager.pendingWrites())));
+
+        addTiming(lines, "Load", PollMetrics.LOADS);
+        addTiming(lines, "Save", PollMetrics.SAVES);
+        addTiming(lines, "Flush", PollMetrics.FLUSHES);
+        lines.add(Messages.METRICS_SAVED_BYTES,
+                Placeholder.unparsed("last", formatBytes(PollMetrics.LAST_SAVE_BYTES.get())),
+                Placeholder.unparsed("total", formatBytes(PollMetrics.SAVED_BYTES.sum())));
+
+        Map<String, PollMetrics.LatencyHistogram> commands = new TreeMap<>(PollMetrics.commands());
+        commands.forEach((name, histogram) -> addTiming(lines, "/poll " + name, histogram));
+
+        lines.send(player);
+        return true;
+    }
+
+    private static void addTiming(MessageUtil.Lines lines, String name, PollMetrics.LatencyHistogram histogram) {
+        lines.add(Messages.METRICS_TIMING,
+                Placeholder.unparsed("name", name),
+                Placeholder.unparsed("count", String.valueOf(histogram.count())),
+                Placeholder.unparsed("mean", formatMillis(histogram.meanMillis())),
+                Placeholder.unparsed("p99", formatMillis(histogram.percentileMillis(0.99))),
+                Placeholder.unparsed("max", formatMillis(histogram.maxMillis())));
+    }
+
+    private static String formatMillis(double millis) {
+        return String.format(Locale.ROOT, "%.3f", millis);
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format(Locale.ROOT, "%.1f KiB", bytes / 1024.0);
+        return String.format(Locale.ROOT, "%.1f MiB", bytes / (1024.0 * 1024.0));
+    }
+
+    @Override
+    public String getUsage() {
+        return "/poll metrics";
+    }
+
+    @Override
+    public List<String> getTabCompletions(Player player, String[] args) {
+        return List.of();
+    }
+}
@@ -8,6 +8,11 @@ import java.util.List;
  * Each subcommand implements this interface to provide consistent execution and tab completion.
  */
 public interface PollSubcommand {
+
+    /**
+     * The maximum number of suggestions returned for a poll ID.
+     */
+    int MAX_COMPLETIONS = 50;
     
     /**
      * Executes the subcommand with the given arguments.
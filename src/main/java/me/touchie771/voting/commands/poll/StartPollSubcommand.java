@@ -3,6 +3,9 @@ package me.touchie771.voting.commands.poll;
 import me.touchie771.voting.utils.PollManager;
 import me.touchie771.voting.utils.MessageUtil;
 import me.touchie771.voting.utils.PollCommandHelper;
+import me.touchie771.voting.utils.SchedulerUtil;
+import me.touchie771.voting.utils.Messages;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import org.bukkit.entity.Player;
 
 import java.util.List;
@@ -17,18 +20,21 @@ public class StartPollSubcommand implements PollSubcommand {
     @Override
     public boolean execute(Player player, String[] args) {
         if (args.length < 2) {
-            MessageUtil.sendMessage(player, "<red>Usage: /poll start <pollId></red>");
+            MessageUtil.sendMessage(player, Messages.START_USAGE);
             return true;
         }
         
         String pollId = args[1];
-        PollCommandHelper.requirePollOwnership(player, pollId, (poll, p) -> {
-            if (PollManager.startPoll(pollId)) {
-                MessageUtil.sendMessage(p, "<green>Poll started: </green><white>" + pollId + "</white>");
-            } else {
-                MessageUtil.sendMessage(p, "<red>Failed to start poll: </red><white>" + pollId + "</white>");
-            }
-        });
+        PollCommandHelper.requirePollOwnership(player, pollId, (poll, p) -> SchedulerUtil.runGlobal(() -> {
+            boolean started = PollManager.startPoll(pollId);
+            SchedulerUtil.runForPlayer(p, () -> {
+                if (started) {
+                    MessageUtil.sendMessage(p, Messages.START_SUCCESS, Placeholder.unparsed("poll_id", pollId));
+                } else {
+                    MessageUtil.sendMessage(p, Messages.START_FAILED, Placeholder.unparsed("poll_id", pollId));
+                }
+            });
+        }));
         
         return true;
     }
@@ -43,7 +49,7 @@ public class StartPollSubcommand implements PollSubcommand {
         if (args.length == 1) {
             return PollManager.getPollsByCreator(player).stream()
                     .filter(poll -> !poll.isActive())
-                    .map(poll -> poll.getCustomId() != null ? poll.getCustomId() : poll.getShortId())
+                    .map(PollManager.Poll::getDisplayId)
                     .filter(id -> id.toLowerCase().startsWith(args[0].toLowerCase()))
                     .collect(Collectors.toList());
         }
@@ -2,11 +2,17 @@ package me.touchie771.voting.commands.poll;
 
 import me.touchie771.voting.utils.PollManager;
 import me.touchie771.voting.utils.MessageUtil;
+import me.touchie771.voting.utils.Messages;
 import me.touchie771.voting.utils.PollCommandHelper;
+import me.touchie771.voting.utils.PollResults;
+import me.touchie771.voting.utils.RankedTally;
+import me.touchie771.voting.utils.VotingMode;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Handles the /poll stats subcommand.
@@ -17,38 +23,80 @@ public class StatsPollSubcommand implements PollSubcommand {
     @Override
     public boolean execute(Player player, String[] args) {
         if (args.length < 2) {
-            MessageUtil.sendMessage(player, "<red>Usage: /poll stats <pollId></red>");
+            MessageUtil.sendMessage(player, Messages.STATS_USAGE);
             return true;
         }
         
         String pollId = args[1];
         PollCommandHelper.withPoll(pollId, player, (poll, p) -> {
-            MessageUtil.sendMessage(p, "<gold>=== Poll Stats ===</gold>");
-            MessageUtil.sendMessage(p, "<gray>ID: </gray><white>" + poll.getShortId() + "</white>");
+            PollResults results = poll.getResults();
+            PollManager.Poll.State state = results.state();
+            long now = System.currentTimeMillis();
+            MessageUtil.Lines lines = MessageUtil.lines()
+                    .add(Messages.STATS_HEADER)
+                    .add(Messages.STATS_ID, Placeholder.unparsed("poll_id", poll.getShortId()));
             if (poll.getCustomId() != null) {
-                MessageUtil.sendMessage(p, "<gray>Custom ID: </gray><white>" + poll.getCustomId() + "</white>");
+                lines.add(Messages.STATS_CUSTOM_ID, Placeholder.unparsed("custom_id", poll.getCustomId()));
             }
-            MessageUtil.sendMessage(p, "<gray>Question: </gray><white>" + poll.getName() + "</white>");
-            MessageUtil.sendMessage(p, "<gray>Creator: </gray><white>" + poll.getCreatorName() + "</white>");
-            MessageUtil.sendMessage(p, "<gray>Status: </gray>" + (poll.isActive() ? "<green>Active</green>" : "<red>Inactive</red>"));
+            lines.add(Messages.STATS_QUESTION, Placeholder.unparsed("question", poll.getName()))
+                    .add(Messages.STATS_CREATOR, Placeholder.unparsed("creator", String.valueOf(poll.getCreatorName())));
+            if (results.mode() != VotingMode.SINGLE) {
+                lines.add(Messages.STATS_MODE, Placeholder.unparsed("mode", results.mode().displayName()));
+            }
+            lines.add(state.isRunning(now) ? Messages.STATS_STATUS_ACTIVE : Messages.STATS_STATUS_INACTIVE);
             
-            if (poll.isActive()) {
-                long timeLeft = (poll.getEndTime() - System.currentTimeMillis()) / 1000;
-                MessageUtil.sendMessage(p, "<gray>Time left: </gray><white>" + timeLeft + " seconds</white>");
+            if (state.isRunning(now)) {
+                long timeLeft = Math.max(0, (state.endTime() - now) / 1000);
+                lines.add(Messages.STATS_TIME_LEFT, Placeholder.unparsed("seconds", String.valueOf(timeLeft)));
             }
             
-            MessageUtil.sendMessage(p, "<gray>Options:</gray>");
+            lines.add(Messages.STATS_OPTIONS);
             for (int i = 0; i < poll.getOptions().size(); i++) {
-                int votes = poll.getVoteCount(i);
-                String option = poll.getOptions().get(i);
-                MessageUtil.sendMessage(p, "<white>" + (i + 1) + ". </white><gray>" + option + " </gray><dark_gray>(</dark_gray><white>" + votes + " votes</white><dark_gray>)</dark_gray>");
+                lines.add(results.mode() == VotingMode.RANKED ? Messages.STATS_OPTION_RANKED : Messages.STATS_OPTION,
+                        Placeholder.unparsed("number", String.valueOf(i + 1)),
+                        Placeholder.unparsed("option", poll.getOptions().get(i)),
+                        Placeholder.unparsed("votes", String.valueOf(results.voteCount(i))));
             }
             
-            MessageUtil.sendMessage(p, "<gray>Total votes: </gray><white>" + poll.getVotes().size() + "</white>");
+            lines.add(Messages.STATS_TOTAL_VOTES, Placeholder.unparsed("votes", String.valueOf(results.totalVotes())));
+            if (results.mode() == VotingMode.WEIGHTED) {
+                lines.add(Messages.STATS_VOTERS, Placeholder.unparsed("voters", String.valueOf(results.voterCount())));
+            }
+            RankedTally.Runoff runoff = results.runoff();
+            if (runoff != null && runoff.winner() >= 0) {
+                addRunoff(lines, runoff, poll.getOptions());
+            }
+            lines.send(p);
         });
         
         return true;
     }
+
+    private static void addRunoff(MessageUtil.Lines lines, RankedTally.Runoff runoff, List<String> options) {
+        lines.add(Messages.STATS_RUNOFF);
+        List<Integer> remaining = new ArrayList<>();
+        for (int i = 0; i < options.size(); i++) {
+            remaining.add(i);
+        }
+        for (int round = 0; round < runoff.rounds().size(); round++) {
+            RankedTally.Round counted = runoff.rounds().get(round);
+            List<String> totals = new ArrayList<>();
+            for (int option : remaining) {
+                totals.add(options.get(option) + " " + counted.voteCount(option));
+            }
+            TagResolver number = Placeholder.unparsed("round", String.valueOf(round + 1));
+            TagResolver joined = Placeholder.unparsed("totals", String.join(", ", totals));
+            int eliminated = counted.eliminatedOption();
+            if (eliminated < 0) {
+                lines.add(Messages.STATS_RUNOFF_FINAL_ROUND, number, joined);
+            } else {
+                lines.add(Messages.STATS_RUNOFF_ROUND, number, joined,
+                        Placeholder.unparsed("option", options.get(eliminated)));
+                remaining.remove(Integer.valueOf(eliminated));
+            }
+        }
+        lines.add(Messages.STATS_RUNOFF_WINNER, Placeholder.unparsed("option", options.get(runoff.winner())));
+    }
     
     @Override
     public String getUsage() {
@@ -58,10 +106,7 @@ public class StatsPollSubcommand implements PollSubcommand {
     @Override
     public List<String> getTabCompletions(Player player, String[] args) {
         if (args.length == 1) {
-            return PollManager.getAllPolls().stream()
-                    .map(poll -> poll.getCustomId() != null ? poll.getCustomId() : poll.getShortId())
-                    .filter(id -> id.toLowerCase().startsWith(args[0].toLowerCase()))
-                    .collect(Collectors.toList());
+            return PollManager.completePollIds(args[0], false, MAX_COMPLETIONS);
         }
         return List.of();
     }
@@ -3,10 +3,10 @@ package me.touchie771.voting.commands.poll;
 import me.touchie771.voting.utils.PollManager;
 import me.touchie771.voting.utils.MessageUtil;
 import me.touchie771.voting.utils.PollCommandHelper;
+import me.touchie771.voting.utils.Messages;
 import org.bukkit.entity.Player;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Handles the /poll unvote subcommand.
@@ -17,16 +17,21 @@ public class UnvotePollSubcommand implements PollSubcommand {
     @Override
     public boolean execute(Player player, String[] args) {
         if (args.length < 2) {
-            MessageUtil.sendMessage(player, "<red>Usage: /poll unvote <pollId></red>");
+            MessageUtil.sendMessage(player, Messages.UNVOTE_USAGE);
             return true;
         }
         
         String pollId = args[1];
         PollCommandHelper.withPoll(pollId, player, (poll, p) -> {
-            if (PollManager.unvote(pollId, p)) {
-                MessageUtil.sendMessage(p, "<green>Your vote has been removed.</green>");
-            } else {
-                MessageUtil.sendMessage(p, "<red>You haven't voted in this poll.</red>");
+            boolean queued = PollManager.submitUnvote(poll, p, result -> {
+                switch (result) {
+                    case REMOVED -> MessageUtil.sendMessage(p, Messages.UNVOTE_SUCCESS);
+                    case NOT_VOTED -> MessageUtil.sendMessage(p, Messages.UNVOTE_NOT_VOTED);
+                    default -> MessageUtil.sendMessage(p, Messages.UNVOTE_FAILED);
+                }
+            });
+            if (!queued) {
+                MessageUtil.sendMessage(p, Messages.QUEUE_FULL);
             }
         });
         
@@ -41,11 +46,7 @@ public class UnvotePollSubcommand implements PollSubcommand {
     @Override
     public List<String> getTabCompletions(Player player, String[] args) {
         if (args.length == 1) {
-            return PollManager.getAllPolls().stream()
-                    .filter(PollManager.Poll::isActive)
-                    .map(poll -> poll.getCustomId() != null ? poll.getCustomId() : poll.getShortId())
-                    .filter(id -> id.toLowerCase().startsWith(args[0].toLowerCase()))
-                    .collect(Collectors.toList());
+            return PollManager.completePollIds(args[0], true, MAX_COMPLETIONS);
         }
         return List.of();
     }
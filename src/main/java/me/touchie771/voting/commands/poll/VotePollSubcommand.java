@@ -1,93 +1,145 @@
 package me.touchie771.voting.commands.poll;
 
+import me.touchie771.voting.utils.Ballot;
 import me.touchie771.voting.utils.PollManager;
 import me.touchie771.voting.utils.MessageUtil;
 import me.touchie771.voting.utils.PollCommandHelper;
+import me.touchie771.voting.utils.Messages;
+import me.touchie771.voting.utils.VotingMode;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Handles the /poll vote subcommand.
- * Usage: /poll vote <pollId> <optionNumber>
+ * Usage: /poll vote <pollId> <optionNumber> [nextChoice...]
+ * <p>
+ * Ranked polls take the options in order of preference; other polls only read the first one.
  */
 public class VotePollSubcommand implements PollSubcommand {
-    
+
     @Override
     public boolean execute(Player player, String[] args) {
         if (args.length < 3) {
-            MessageUtil.sendMessage(player, "<red>Usage: /poll vote <pollId> <optionNumber></red>");
+            MessageUtil.sendMessage(player, Messages.VOTE_USAGE);
             return true;
         }
-        
+
         String pollId = args[1];
-        int optionNumber;
-        
-        try {
-            optionNumber = Integer.parseInt(args[2]);
-        } catch (NumberFormatException e) {
-            MessageUtil.sendMessage(player, "<red>Option number must be a valid integer!</red>");
-            return true;
-        }
-        
-        if (optionNumber < 1) {
-            MessageUtil.sendMessage(player, "<red>Option number must be positive!</red>");
-            return true;
+        List<Integer> optionNumbers = new ArrayList<>();
+
+        for (int i = 2; i < args.length; i++) {
+            int optionNumber;
+            try {
+                optionNumber = Integer.parseInt(args[i]);
+            } catch (NumberFormatException e) {
+                MessageUtil.sendMessage(player, Messages.VOTE_OPTION_NOT_A_NUMBER);
+                return true;
+            }
+
+            if (optionNumber < 1) {
+                MessageUtil.sendMessage(player, Messages.VOTE_OPTION_NOT_POSITIVE);
+                return true;
+            }
+            optionNumbers.add(optionNumber);
         }
-        
-        int optionIndex = optionNumber - 1;
-        
+
         PollCommandHelper.withPoll(pollId, player, (poll, p) -> {
             if (!poll.isActive()) {
-                MessageUtil.sendMessage(p, "<red>This poll is not active!</red>");
+                MessageUtil.sendMessage(p, Messages.VOTE_POLL_INACTIVE);
                 return;
             }
-            
-            if (poll.hasVoted(p)) {
-                MessageUtil.sendMessage(p, "<yellow>You already voted! Your vote has been changed.</yellow>");
+
+            int optionCount = poll.getOptions().size();
+            List<Integer> choices = poll.getMode() == VotingMode.RANKED ? optionNumbers : optionNumbers.subList(0, 1);
+            if (choices.size() > Ballot.MAX_PREFERENCES) {
+                MessageUtil.sendMessage(p, Messages.VOTE_TOO_MANY_CHOICES,
+                        Placeholder.unparsed("max", String.valueOf(Ballot.MAX_PREFERENCES)));
+                return;
             }
-            
-            if (PollManager.vote(pollId, p, optionIndex)) {
-                MessageUtil.sendMessage(p, "<green>Vote cast for option </green><white>" + optionNumber + "</white>");
-            } else {
-                MessageUtil.sendMessage(p, "<red>Invalid option number!</red>");
+            if (new HashSet<>(choices).size() != choices.size()) {
+                MessageUtil.sendMessage(p, Messages.VOTE_DUPLICATE_CHOICE);
+                return;
+            }
+            for (int optionNumber : choices) {
+                if (optionNumber > optionCount) {
+                    MessageUtil.sendMessage(p, Messages.VOTE_INVALID_OPTION);
+                    return;
+                }
+            }
+
+            int weight = poll.getMode() == VotingMode.WEIGHTED ? PollCommandHelper.voteWeight(p) : 1;
+            int ballot = poll.getMode() == VotingMode.RANKED
+                    ? Ballot.ranking(choices.stream().map(number -> number - 1).toList())
+                    : Ballot.choice(choices.get(0) - 1, weight);
+
+            boolean queued = PollManager.submitVote(poll, p, ballot, result -> {
+                switch (result) {
+                    case VOTED -> addCast(MessageUtil.lines(), choices, weight).send(p);
+                    case CHANGED -> addCast(MessageUtil.lines().add(Messages.VOTE_CHANGED), choices, weight).send(p);
+                    case INACTIVE -> MessageUtil.sendMessage(p, Messages.VOTE_POLL_INACTIVE);
+                    case INVALID_OPTION -> MessageUtil.sendMessage(p, Messages.VOTE_INVALID_OPTION);
+                    default -> MessageUtil.sendMessage(p, Messages.VOTE_FAILED);
+                }
+            });
+            if (!queued) {
+                MessageUtil.sendMessage(p, Messages.QUEUE_FULL);
             }
         });
-        
+
         return true;
     }
-    
+
+    private static MessageUtil.Lines addCast(MessageUtil.Lines lines, List<Integer> choices, int weight) {
+        if (choices.size() > 1) {
+            String ranking = choices.stream().map(String::valueOf).collect(Collectors.joining(" > "));
+            lines.add(Messages.VOTE_RANKING_CAST, Placeholder.unparsed("ranking", ranking));
+        } else {
+            TagResolver option = Placeholder.unparsed("option", String.valueOf(choices.get(0)));
+            lines.add(Messages.VOTE_CAST, option);
+        }
+        if (weight > 1) {
+            lines.add(Messages.VOTE_WEIGHT, Placeholder.unparsed("weight", String.valueOf(weight)));
+        }
+        return lines;
+    }
+
     @Override
     public String getUsage() {
-        return "/poll vote <pollId> <optionNumber>";
+        return "/poll vote <pollId> <optionNumber> [nextChoice...]";
     }
-    
+
     @Override
     public List<String> getTabCompletions(Player player, String[] args) {
         if (args.length == 1) {
-            return PollManager.getAllPolls().stream()
-                    .filter(PollManager.Poll::isActive)
-                    .map(poll -> poll.getCustomId() != null ? poll.getCustomId() : poll.getShortId())
-                    .filter(id -> id.toLowerCase().startsWith(args[0].toLowerCase()))
-                    .collect(Collectors.toList());
+            return PollManager.completePollIds(args[0], true, MAX_COMPLETIONS);
         }
-        if (args.length == 2) {
+        if (args.length >= 2) {
             String pollId = args[0];
             return PollManager.getPollById(pollId)
                     .filter(PollManager.Poll::isActive)
+                    // Only ranked polls take further choices
+                    .filter(poll -> args.length == 2 || poll.getMode() == VotingMode.RANKED)
                     .map(poll -> {
+                        // Options already ranked are not offered again
+                        Set<String> chosen = new HashSet<>(List.of(args).subList(1, args.length - 1));
                         List<String> options = new ArrayList<>();
                         for (int i = 0; i < poll.getOptions().size(); i++) {
                             options.add(String.valueOf(i + 1));
                         }
                         return options.stream()
-                                .filter(option -> option.startsWith(args[1]))
+                                .filter(option -> !chosen.contains(option))
+                                .filter(option -> option.startsWith(args[args.length - 1]))
                                 .collect(Collectors.toList());
                     })
                     .orElse(List.of());
         }
         return List.of();
     }
-}
\ No newline at end of file
+}
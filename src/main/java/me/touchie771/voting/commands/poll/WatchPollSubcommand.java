@@ -0,0 +1,52 @@
+package me.touchie771.voting.commands.poll;
+
+import me.touchie771.voting.utils.LiveResultsDisplay;
+import me.touchie771.voting.utils.MessageUtil;
+import me.touchie771.voting.utils.Messages;
+import me.touchie771.voting.utils.PollCommandHelper;
+import me.touchie771.voting.utils.PollManager;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+
+/**
+ * Handles the /poll watch subcommand, which toggles the live results boss bar of a poll.
+ * Usage: /poll watch <pollId>
+ */
+public class WatchPollSubcommand implements PollSubcommand {
+
+    @Override
+    public boolean execute(Player player, String[] args) {
+        if (args.length < 2) {
+            MessageUtil.sendMessage(player, Messages.WATCH_USAGE);
+            return true;
+        }
+
+        String pollId = args[1];
+        PollCommandHelper.withPoll(pollId, player, (poll, p) -> {
+            if (!poll.isActive()) {
+                MessageUtil.sendMessage(p, Messages.WATCH_POLL_INACTIVE);
+                return;
+            }
+            boolean watching = LiveResultsDisplay.toggle(p, poll);
+            MessageUtil.sendMessage(p, watching ? Messages.WATCH_STARTED : Messages.WATCH_STOPPED,
+                    Placeholder.unparsed("poll_id", poll.getDisplayId()));
+        });
+
+        return true;
+    }
+
+    @Override
+    public String getUsage() {
+        return "/poll watch <pollId>";
+    }
+
+    @Override
+    public List<String> getTabCompletions(Player player, String[] args) {
+        if (args.length == 1) {
+            return PollManager.completePollIds(args[0], true, MAX_COMPLETIONS);
+        }
+        return List.of();
+    }
+}
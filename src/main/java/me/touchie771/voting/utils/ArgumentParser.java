@@ -29,7 +29,10 @@ public class ArgumentParser {
         for (int i = startIndex; i < args.length; i++) {
             String arg = args[i];
             
-            if (arg.startsWith("\"") && !inQuotes) {
+            if (arg.startsWith("\"") && arg.endsWith("\"") && arg.length() > 1 && !inQuotes) {
+                // Quoted on its own, so the argument after it is not swallowed
+                return new ParseResult(arg.substring(1, arg.length() - 1), 1);
+            } else if (arg.startsWith("\"") && !inQuotes) {
                 inQuotes = true;
                 result.append(arg.substring(1));
                 argsConsumed++;
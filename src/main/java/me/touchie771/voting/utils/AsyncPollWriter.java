@@ -0,0 +1,244 @@
+package me.touchie771.voting.utils;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind persistence stage for polls.
+ * Mutations only queue a journal event; a single background thread appends the queued events
+ * to the {@link Target} at most once per interval, or earlier once enough events have accumulated.
+ * When the target's backlog grows past the compaction threshold, or an append failed, the full
+ * state is written instead.
+ */
+public class AsyncPollWriter {
+
+    private final Target target;
+    private final Runnable afterCompaction;
+    private final Logger logger;
+    private final int batchSize;
+    private final int compactThreshold;
+    private final ScheduledExecutorService executor;
+    private final Queue<PollJournal.Event> pendingEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private boolean compactionRequired;
+
+    /**
+     * Creates the writer and starts its background flush loop.
+     *
+     * @param target where changes are persisted
+     * @param logger the logger used to report unexpected failures
+     * @param intervalMillis the maximum delay between a change and its flush
+     * @param batchSize the number of changes that triggers a flush before the interval elapses
+     * @param compactThreshold the backlog length at which the full state is written
+     * @param afterCompaction called on the writer thread after the full state was written
+     */
+    public AsyncPollWriter(Target target, Logger logger, long intervalMillis, int batchSize, int compactThreshold,
+                           Runnable afterCompaction) {
+        this.target = target;
+        this.afterCompaction = afterCompaction;
+        this.logger = logger;
+        this.batchSize = Math.max(1, batchSize);
+        this.compactThreshold = Math.max(1, compactThreshold);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Voting-PollWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = Math.max(1, intervalMillis);
+        executor.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a writer configured by the {@code storage} section of the plugin config.
+     *
+     * @param plugin the plugin whose config and logger are used
+     * @param target where changes are persisted
+     * @param afterCompaction called on the writer thread after the full state was written
+     * @return the started writer
+     */
+    public static AsyncPollWriter create(JavaPlugin plugin, Target target, Runnable afterCompaction) {
+        long saveInterval = plugin.getConfig().getLong("storage.save-interval-seconds", 5) * 1000L;
+        int saveBatchSize = plugin.getConfig().getInt("storage.save-batch-size", 100);
+        int compactThreshold = plugin.getConfig().getInt("storage.compact-after-events", 10000);
+        return new AsyncPollWriter(target, plugin.getLogger(), saveInterval, saveBatchSize, compactThreshold,
+                afterCompaction);
+    }
+
+    /**
+     * Queues a change to be journaled. Must be called after the change was applied to the poll.
+     * Never blocks on I/O.
+     *
+     * @param event the change to persist
+     */
+    public void record(PollJournal.Event event) {
+        pendingEvents.add(event);
+        if (pendingCount.incrementAndGet() >= batchSize) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Returns the number of changes waiting to be flushed.
+     *
+     * @return the number of queued changes
+     */
+    public int pending() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Schedules a flush on the writer thread without waiting for the interval to elapse.
+     * Requests made while a flush is already scheduled are coalesced into it.
+     */
+    public void requestFlush() {
+        if (flushQueued.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    flushQueued.set(false);
+                    flushSafely();
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down, the final flush picks the change up
+                flushQueued.set(false);
+            }
+        }
+    }
+
+    /**
+     * Runs a task on the writer thread, after the flush in progress if there is one.
+     *
+     * @param task the task to run
+     * @return false if the writer is shut down and the task was dropped
+     */
+    public boolean execute(Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Appends all queued events to the target, compacting it if its backlog grew too long.
+     * Events queued while a flush is in progress are picked up by the next flush.
+     */
+    public synchronized void flush() {
+        List<PollJournal.Event> batch = drainPending();
+
+        // While a compaction is outstanding the target may be missing events, so skip appending
+        // and let the full write cover them instead
+        if (!batch.isEmpty() && !compactionRequired) {
+            long start = System.nanoTime();
+            compactionRequired = !target.append(batch);
+            PollMetrics.FLUSHES.recordSince(start);
+        }
+
+        if (compactionRequired || target.backlog() >= compactThreshold) {
+            compact();
+        }
+    }
+
+    /**
+     * Makes the next flush write the full state, and schedules that flush.
+     */
+    public void requestCompaction() {
+        synchronized (this) {
+            compactionRequired = true;
+        }
+        requestFlush();
+    }
+
+    /**
+     * Stops the background thread and persists the remaining events on the calling thread.
+     *
+     * @param compact whether to write the full state even if the target does not need it
+     */
+    public void shutdown(boolean compact) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("Poll writer did not finish in time, forcing final save");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            if (compact) {
+                drainPending();
+                compactionRequired = true;
+            }
+            flush();
+        }
+    }
+
+    private List<PollJournal.Event> drainPending() {
+        List<PollJournal.Event> batch = new ArrayList<>();
+        PollJournal.Event event;
+        while ((event = pendingEvents.poll()) != null) {
+            batch.add(event);
+        }
+        pendingCount.addAndGet(-batch.size());
+        return batch;
+    }
+
+    private void compact() {
+        // The full state is read after draining, so it contains every event already appended.
+        // Events queued meanwhile are appended afterwards and applied idempotently.
+        long start = System.nanoTime();
+        compactionRequired = !target.compact();
+        PollMetrics.SAVES.recordSince(start);
+        if (!compactionRequired) {
+            afterCompaction.run();
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic flush
+            logger.log(Level.SEVERE, "Unexpected error while saving polls", e);
+        }
+    }
+
+    /**
+     * Where the writer persists changes.
+     */
+    public interface Target {
+
+        /**
+         * Persists the given events, in order.
+         *
+         * @return true if every event was persisted
+         */
+        boolean append(List<PollJournal.Event> events);
+
+        /**
+         * Returns the number of appended events that a compaction would fold away.
+         */
+        int backlog();
+
+        /**
+         * Writes the full current state, replacing everything appended before.
+         *
+         * @return true if the state was written successfully
+         */
+        boolean compact();
+    }
+}
@@ -0,0 +1,117 @@
+package me.touchie771.voting.utils;
+
+import java.util.List;
+
+/**
+ * Packs what a voter chose into the single {@code int} a {@link VoteTable} stores per voter.
+ * <p>
+ * A choice of one option keeps the option index in the low 8 bits and the weight minus one above
+ * them, so a plain option index, as written before weighted polls existed, reads as weight one.
+ * A ranking keeps one preference per 4-bit nibble as option index plus one, first preference in the
+ * lowest nibble; the first empty nibble ends it. Which of the two a ballot holds follows from the
+ * {@link VotingMode} of its poll.
+ */
+public final class Ballot {
+
+    /** The most options a poll can have. */
+    public static final int MAX_OPTIONS = 255;
+    /** The most options a ranked poll can have, limited by the nibble per preference. */
+    public static final int MAX_RANKED_OPTIONS = 15;
+    /** The most preferences a ranking can hold. */
+    public static final int MAX_PREFERENCES = 7;
+    /** The highest vote weight, low enough that the tallies of large polls cannot overflow. */
+    public static final int MAX_WEIGHT = 1000;
+
+    private static final int PREFERENCE_BITS = 4;
+    private static final int PREFERENCE_MASK = (1 << PREFERENCE_BITS) - 1;
+
+    private Ballot() {}
+
+    /**
+     * Encodes a choice of one option.
+     *
+     * @param option the zero-based option index
+     * @param weight the weight of the vote, between 1 and {@link #MAX_WEIGHT}
+     */
+    public static int choice(int option, int weight) {
+        if (option < 0 || option >= MAX_OPTIONS) {
+            throw new IllegalArgumentException("Option index out of range: " + option);
+        }
+        if (weight < 1 || weight > MAX_WEIGHT) {
+            throw new IllegalArgumentException("Vote weight out of range: " + weight);
+        }
+        return option | (weight - 1) << 8;
+    }
+
+    /**
+     * Encodes a ranking.
+     *
+     * @param preferences the zero-based option indexes, most preferred first
+     */
+    public static int ranking(List<Integer> preferences) {
+        if (preferences.isEmpty() || preferences.size() > MAX_PREFERENCES) {
+            throw new IllegalArgumentException("A ranking must hold 1 to " + MAX_PREFERENCES + " preferences");
+        }
+        int ballot = 0;
+        for (int rank = 0; rank < preferences.size(); rank++) {
+            int option = preferences.get(rank);
+            if (option < 0 || option >= MAX_RANKED_OPTIONS) {
+                throw new IllegalArgumentException("Option index out of range: " + option);
+            }
+            ballot |= (option + 1) << (rank * PREFERENCE_BITS);
+        }
+        return ballot;
+    }
+
+    /**
+     * Returns the option of a single choice.
+     */
+    public static int option(int ballot) {
+        return ballot & 0xFF;
+    }
+
+    /**
+     * Returns the weight of a single choice.
+     */
+    public static int weight(int ballot) {
+        return (ballot >>> 8) + 1;
+    }
+
+    /**
+     * Returns the number of preferences in a ranking.
+     */
+    public static int preferenceCount(int ballot) {
+        int count = 0;
+        while (count < MAX_PREFERENCES && preference(ballot, count) >= 0) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns a preference of a ranking.
+     *
+     * @param rank the zero-based rank, 0 being the first preference
+     * @return the option index, or -1 if the ranking holds fewer preferences
+     */
+    public static int preference(int ballot, int rank) {
+        return ((ballot >>> (rank * PREFERENCE_BITS)) & PREFERENCE_MASK) - 1;
+    }
+
+    /**
+     * Returns whether a ranking only names existing options, each at most once, without gaps.
+     */
+    static boolean isValidRanking(int ballot, int optionCount) {
+        if (ballot <= 0 || ballot >>> (MAX_PREFERENCES * PREFERENCE_BITS) != 0) return false;
+        int seen = 0;
+        int rank = 0;
+        for (; rank < MAX_PREFERENCES; rank++) {
+            int option = preference(ballot, rank);
+            if (option < 0) break;
+            if (option >= optionCount || (seen & 1 << option) != 0) return false;
+            seen |= 1 << option;
+        }
+        // Nothing may follow the end of the ranking
+        return ballot >>> (rank * PREFERENCE_BITS) == 0;
+    }
+}
@@ -0,0 +1,386 @@
+package me.touchie771.voting.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Compact, versioned binary snapshot format.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * header:  int magic "VOTE", short version, int pollCount
+ * table:   pollCount x (long idMost, long idLeast, long recordOffset)
+ * records: long idMost, long idLeast, string customId, string name, long duration,
+ *          long creatorMost, long creatorLeast, string creatorName,
+ *          varint optionCount, optionCount x string, byte flags, long startTime, long endTime,
+ *          int voteCount, voteCount x (long voterMost, long voterLeast, varint ballot)
+ * </pre>
+ * Strings are a varint of the UTF-8 length plus one followed by the bytes, where zero means null.
+ * The flags hold whether the poll is active in bit 0 and its {@link VotingMode} in bits 1 and 2;
+ * version 1 files predate voting modes and only hold single choices.
+ * Files are read into a heap buffer rather than mapped: a mapping outlives the channel until it is
+ * garbage collected, and on Windows it keeps the file from being replaced by the next snapshot.
+ */
+public class BinaryPollFormat implements PollFormat {
+
+    static final int MAGIC = 0x564F5445;
+    static final short VERSION = 2;
+    static final int HEADER_SIZE = 4 + 2 + 4;
+    static final int TABLE_ENTRY_SIZE = 8 + 8 + 8;
+
+    private static final int FLAG_ACTIVE = 1;
+    private static final int MODE_SHIFT = 1;
+    private static final int MODE_MASK = 0b11;
+
+    @Override
+    public String fileName() {
+        return "polls.dat";
+    }
+
+    @Override
+    public String extension() {
+        return ".dat";
+    }
+
+    @Override
+    public void write(File file, List<PollManager.Poll> polls) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            int count = polls.size();
+            long dataStart = HEADER_SIZE + (long) count * TABLE_ENTRY_SIZE;
+
+            // Records first, so their offsets are known when the table is written
+            ChannelWriter out = new ChannelWriter(channel, dataStart);
+            long[] offsets = new long[count];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = out.position();
+                writeRecord(out, polls.get(i));
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate((int) dataStart);
+            header.putInt(MAGIC).putShort(VERSION).putInt(count);
+            for (int i = 0; i < count; i++) {
+                UUID id = polls.get(i).getId();
+                header.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).putLong(offsets[i]);
+            }
+            header.flip();
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+            channel.force(true);
+        }
+    }
+
+    private static void writeRecord(ChannelWriter out, PollManager.Poll poll) throws IOException {
+        out.putUuid(poll.getId());
+        out.putString(poll.getCustomId());
+        out.putString(poll.getName());
+        out.putLong(poll.getDuration());
+        out.putUuid(poll.getCreatorId());
+        out.putString(poll.getCreatorName());
+        out.putVarInt(poll.getOptions().size());
+        for (String option : poll.getOptions()) {
+            out.putString(option);
+        }
+        PollManager.Poll.State state = poll.getState();
+        int flags = state.isRunning(System.currentTimeMillis()) ? FLAG_ACTIVE : 0;
+        out.putByte(flags | poll.getMode().ordinal() << MODE_SHIFT);
+        out.putLong(state.startTime());
+        out.putLong(state.endTime());
+
+        // The number of votes is only known once they are copied, so it is patched in afterwards
+        long countPosition = out.position();
+        out.putInt(0);
+        VoteTable.Snapshot votes = poll.votesSnapshot();
+        for (int i = 0; i < votes.size(); i++) {
+            out.putLong(votes.mostSignificantBits(i));
+            out.putLong(votes.leastSignificantBits(i));
+            out.putVarInt(votes.ballot(i));
+        }
+        out.putIntAt(countPosition, votes.size());
+    }
+
+    @Override
+    public void read(File file, Consumer<PollManager.Poll> consumer, boolean lazyClosedPolls) throws IOException {
+        read(file, consumer, lazyClosedPolls, false);
+    }
+
+    @Override
+    public void readMetadata(File file, Consumer<PollManager.Poll> consumer, boolean lazyClosedPolls) throws IOException {
+        read(file, consumer, lazyClosedPolls, true);
+    }
+
+    private static void read(File file, Consumer<PollManager.Poll> consumer, boolean lazyClosedPolls,
+                             boolean metadataOnly) throws IOException {
+        try {
+            ByteBuffer buffer = readFile(file);
+            if (buffer.limit() == 0) return;
+            int count = readHeader(buffer);
+            for (int i = 0; i < count; i++) {
+                long offset = buffer.getLong(HEADER_SIZE + i * TABLE_ENTRY_SIZE + 16);
+                buffer.position(Math.toIntExact(offset));
+                consumer.accept(readRecord(buffer, lazyClosedPolls, metadataOnly));
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | ArithmeticException e) {
+            throw new IOException("Corrupt poll data file", e);
+        }
+    }
+
+    @Override
+    public VoteReader openVoteReader(File file) throws IOException {
+        ByteBuffer buffer = readFile(file);
+        Map<UUID, Integer> offsets = new HashMap<>();
+        try {
+            int count = buffer.limit() == 0 ? 0 : readHeader(buffer);
+            for (int i = 0; i < count; i++) {
+                int entry = HEADER_SIZE + i * TABLE_ENTRY_SIZE;
+                UUID id = new UUID(buffer.getLong(entry), buffer.getLong(entry + 8));
+                offsets.put(id, Math.toIntExact(buffer.getLong(entry + 16)));
+            }
+        } catch (IndexOutOfBoundsException | ArithmeticException e) {
+            throw new IOException("Corrupt poll data file", e);
+        }
+
+        return (pollId, consumer) -> {
+            Integer offset = offsets.get(pollId);
+            if (offset == null) return false;
+            try {
+                ByteBuffer record = buffer.duplicate().position(offset);
+                skipMetadata(record);
+                int voteCount = record.getInt();
+                for (int i = 0; i < voteCount; i++) {
+                    consumer.accept(getUuid(record), getVarInt(record));
+                }
+                return true;
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("Corrupt poll data file", e);
+            }
+        };
+    }
+
+    /**
+     * Reads the whole file into a heap buffer, so no handle or mapping is left open once it returns.
+     */
+    private static ByteBuffer readFile(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Poll data file is too large to read: " + size + " bytes");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, buffer.position()) < 0) {
+                    throw new IOException("Poll data file was truncated while reading");
+                }
+            }
+            return buffer.flip();
+        }
+    }
+
+    static int readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a poll data file");
+        }
+        short version = buffer.getShort(4);
+        if (version > VERSION) {
+            throw new IOException("Unsupported poll data version " + version);
+        }
+        return buffer.getInt(6);
+    }
+
+    private static PollManager.Poll readRecord(ByteBuffer buffer, boolean lazyClosedPolls, boolean metadataOnly) {
+        UUID id = getUuid(buffer);
+        String customId = getString(buffer);
+        String name = getString(buffer);
+        long duration = buffer.getLong();
+        UUID creatorId = getUuid(buffer);
+        String creatorName = getString(buffer);
+        int optionCount = getVarInt(buffer);
+        List<String> options = new ArrayList<>(optionCount);
+        for (int i = 0; i < optionCount; i++) {
+            options.add(getString(buffer));
+        }
+        int flags = buffer.get();
+        boolean active = (flags & FLAG_ACTIVE) != 0;
+        int modeIndex = flags >> MODE_SHIFT & MODE_MASK;
+        if (modeIndex >= VotingMode.values().length) {
+            throw new IllegalArgumentException("Unknown voting mode " + modeIndex);
+        }
+        VotingMode mode = VotingMode.values()[modeIndex];
+        long startTime = buffer.getLong();
+        long endTime = buffer.getLong();
+
+        PollManager.Poll poll = new PollSerializer.PollData(id, customId, name, duration, creatorId, creatorName,
+                options, null, active, startTime, endTime, mode).toPoll();
+        int voteCount = buffer.getInt();
+        if (lazyClosedPolls && !poll.isActive()) {
+            // Only count the ballots, the voters stay on disk until they are needed
+            int[] ballots = new int[voteCount];
+            for (int i = 0; i < voteCount; i++) {
+                buffer.position(buffer.position() + 16);
+                ballots[i] = getVarInt(buffer);
+            }
+            poll.restoreUnloaded(ballots, voteCount);
+            return poll;
+        }
+        if (metadataOnly) {
+            poll.markVotesPending();
+            return poll;
+        }
+
+        poll.reserveVotes(voteCount);
+        for (int i = 0; i < voteCount; i++) {
+            poll.restoreVote(buffer.getLong(), buffer.getLong(), getVarInt(buffer));
+        }
+        return poll;
+    }
+
+    private static void skipMetadata(ByteBuffer buffer) {
+        buffer.position(buffer.position() + 16);
+        skipString(buffer);
+        skipString(buffer);
+        buffer.position(buffer.position() + 8 + 16);
+        skipString(buffer);
+        int optionCount = getVarInt(buffer);
+        for (int i = 0; i < optionCount; i++) {
+            skipString(buffer);
+        }
+        buffer.position(buffer.position() + 1 + 8 + 8);
+    }
+
+    private static void skipString(ByteBuffer buffer) {
+        int length = getVarInt(buffer) - 1;
+        if (length > 0) {
+            buffer.position(buffer.position() + length);
+        }
+    }
+
+    static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    static String getString(ByteBuffer buffer) {
+        int length = getVarInt(buffer) - 1;
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /**
+     * Buffered writer on top of a file channel that keeps track of the absolute file position.
+     */
+    private static final class ChannelWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        private long flushedPosition;
+
+        ChannelWriter(FileChannel channel, long startPosition) {
+            this.channel = channel;
+            this.flushedPosition = startPosition;
+        }
+
+        long position() {
+            return flushedPosition + buffer.position();
+        }
+
+        void putByte(int value) throws IOException {
+            ensure(1);
+            buffer.put((byte) value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putIntAt(long position, int value) throws IOException {
+            if (position >= flushedPosition) {
+                buffer.putInt((int) (position - flushedPosition), value);
+            } else {
+                ByteBuffer patch = ByteBuffer.allocate(4).putInt(0, value);
+                while (patch.hasRemaining()) {
+                    position += channel.write(patch, position);
+                }
+            }
+        }
+
+        void putUuid(UUID value) throws IOException {
+            ensure(16);
+            buffer.putLong(value.getMostSignificantBits()).putLong(value.getLeastSignificantBits());
+        }
+
+        void putVarInt(int value) throws IOException {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void putString(String value) throws IOException {
+            if (value == null) {
+                putVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarInt(bytes.length + 1);
+            if (bytes.length > buffer.capacity()) {
+                flush();
+                writeFully(ByteBuffer.wrap(bytes));
+            } else {
+                ensure(bytes.length);
+                buffer.put(bytes);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                flushedPosition += channel.write(source, flushedPosition);
+            }
+        }
+    }
+}
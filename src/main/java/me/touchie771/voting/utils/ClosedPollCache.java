@@ -0,0 +1,58 @@
+package me.touchie771.voting.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the voter maps of the most recently used closed polls resident.
+ * Closed polls beyond the capacity have their votes unloaded, oldest first, once their state
+ * is contained in the snapshot. Their tallies stay resident, so results never touch the disk.
+ * The votes are read back from the snapshot when a vote changes, or on the storage thread when
+ * a reader asks for the voters.
+ */
+public class ClosedPollCache {
+
+    private final int capacity;
+    // Access-ordered, so iteration starts at the least recently used poll
+    private final LinkedHashMap<UUID, PollManager.Poll> residentPolls = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param capacity the number of closed polls whose votes may stay resident
+     */
+    public ClosedPollCache(int capacity) {
+        this.capacity = Math.max(0, capacity);
+    }
+
+    /**
+     * Marks the votes of the given closed poll as recently used and unloads the least recently
+     * used ones beyond the capacity.
+     *
+     * @param poll the closed poll whose votes are resident
+     */
+    public synchronized void touch(PollManager.Poll poll) {
+        residentPolls.put(poll.getId(), poll);
+        trim();
+    }
+
+    /**
+     * Unloads the votes of the least recently used closed polls beyond the capacity.
+     * Polls with changes that are not in the snapshot yet are kept until a later call.
+     */
+    public synchronized void trim() {
+        int excess = residentPolls.size() - capacity;
+        Iterator<Map.Entry<UUID, PollManager.Poll>> iterator = residentPolls.entrySet().iterator();
+        while (excess > 0 && iterator.hasNext()) {
+            PollManager.Poll poll = iterator.next().getValue();
+            if (poll.isActive() || !poll.hasResidentVotes()) {
+                // Restarted or already unloaded, no longer counts against the capacity
+                iterator.remove();
+                excess--;
+            } else if (poll.unloadVotes()) {
+                iterator.remove();
+                excess--;
+            }
+        }
+    }
+}
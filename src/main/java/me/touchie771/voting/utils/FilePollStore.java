@@ -0,0 +1,98 @@
+package me.touchie771.voting.utils;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Stores polls in one file per poll with a journal of the changes made since.
+ * Changes are appended to the journal; once it grows too long, the polls that changed are
+ * rewritten and the journal emptied.
+ */
+public class FilePollStore implements PollStore, AsyncPollWriter.Target {
+
+    private final PollSerializer serializer;
+    private final PollJournal journal;
+    private final Supplier<List<PollManager.Poll>> snapshot;
+    private final AsyncPollWriter writer;
+
+    public FilePollStore(JavaPlugin plugin, Supplier<List<PollManager.Poll>> snapshot, Runnable afterCompaction) {
+        this.serializer = new PollSerializer(plugin);
+        this.journal = new PollJournal(plugin);
+        this.snapshot = snapshot;
+        this.writer = AsyncPollWriter.create(plugin, this, afterCompaction);
+    }
+
+    @Override
+    public void load(Consumer<PollManager.Poll> pollConsumer, Consumer<PollJournal.Event> eventConsumer,
+                     boolean lazyClosedPolls) {
+        serializer.loadPollMetadata(pollConsumer, lazyClosedPolls);
+
+        // Fold the replayed journal into a fresh snapshot so the journal starts out empty
+        if (journal.replay(eventConsumer) > 0) {
+            writer.requestCompaction();
+        }
+    }
+
+    @Override
+    public void record(PollJournal.Event event) {
+        writer.record(event);
+    }
+
+    @Override
+    public void requestFlush() {
+        writer.requestFlush();
+    }
+
+    @Override
+    public void flush() {
+        writer.flush();
+    }
+
+    @Override
+    public int pendingChanges() {
+        return writer.pending();
+    }
+
+    @Override
+    public boolean execute(Runnable task) {
+        return writer.execute(task);
+    }
+
+    @Override
+    public void shutdown() {
+        writer.shutdown(true);
+    }
+
+    @Override
+    public boolean supportsLazyVotes() {
+        return serializer.supportsLazyVotes();
+    }
+
+    @Override
+    public void loadVotes(UUID pollId, BiConsumer<UUID, Integer> consumer) throws IOException {
+        serializer.loadVotes(pollId, consumer);
+    }
+
+    @Override
+    public boolean append(List<PollJournal.Event> events) {
+        return journal.append(events);
+    }
+
+    @Override
+    public int backlog() {
+        return journal.size();
+    }
+
+    @Override
+    public boolean compact() {
+        // The polls are saved after draining, so their files contain every event already in the journal.
+        // Events queued meanwhile end up in the next journal and are replayed idempotently.
+        return serializer.savePolls(snapshot.get()) && journal.truncate();
+    }
+}
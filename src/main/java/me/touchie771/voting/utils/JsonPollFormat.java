@@ -0,0 +1,287 @@
+package me.touchie771.voting.utils;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * JSON snapshot format. Polls are streamed one at a time with Gson's {@link JsonReader}/{@link JsonWriter},
+ * so neither loading nor saving holds an extra copy of every vote map in memory.
+ */
+public class JsonPollFormat implements PollFormat {
+
+    private final boolean prettyPrint;
+
+    public JsonPollFormat(boolean prettyPrint) {
+        this.prettyPrint = prettyPrint;
+    }
+
+    @Override
+    public String fileName() {
+        return "polls.json";
+    }
+
+    @Override
+    public String extension() {
+        return ".json";
+    }
+
+    @Override
+    public void write(File file, List<PollManager.Poll> polls) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file);
+             JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)))) {
+            if (prettyPrint) {
+                writer.setIndent("  ");
+            }
+            writer.beginArray();
+            for (PollManager.Poll poll : polls) {
+                writePoll(writer, poll);
+            }
+            writer.endArray();
+            writer.flush();
+            out.getFD().sync();
+        }
+    }
+
+    // Votes are written last, so a reader only interested in metadata can stop early
+    private static void writePoll(JsonWriter writer, PollManager.Poll poll) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(poll.getId().toString());
+        if (poll.getCustomId() != null) {
+            writer.name("customId").value(poll.getCustomId());
+        }
+        writer.name("name").value(poll.getName());
+        writer.name("duration").value(poll.getDuration());
+        writer.name("creatorId").value(poll.getCreatorId().toString());
+        if (poll.getCreatorName() != null) {
+            writer.name("creatorName").value(poll.getCreatorName());
+        }
+        writer.name("options").beginArray();
+        for (String option : poll.getOptions()) {
+            writer.value(option);
+        }
+        writer.endArray();
+        if (poll.getMode() != VotingMode.SINGLE) {
+            writer.name("mode").value(poll.getMode().name());
+        }
+        PollManager.Poll.State state = poll.getState();
+        writer.name("active").value(state.isRunning(System.currentTimeMillis()));
+        writer.name("startTime").value(state.startTime());
+        writer.name("endTime").value(state.endTime());
+        writer.name("votes").beginObject();
+        VoteTable.Snapshot votes = poll.votesSnapshot();
+        for (int i = 0; i < votes.size(); i++) {
+            writer.name(votes.voterId(i).toString()).value(votes.ballot(i));
+        }
+        writer.endObject();
+        writer.endObject();
+    }
+
+    @Override
+    public void read(File file, Consumer<PollManager.Poll> consumer, boolean lazyClosedPolls) throws IOException {
+        // Single polls cannot be located without reading the whole file, so every poll stays resident
+        readPolls(file, consumer, false);
+    }
+
+    @Override
+    public void readMetadata(File file, Consumer<PollManager.Poll> consumer, boolean lazyClosedPolls) throws IOException {
+        readPolls(file, consumer, true);
+    }
+
+    private static void readPolls(File file, Consumer<PollManager.Poll> consumer, boolean metadataOnly)
+            throws IOException {
+        if (file.length() == 0) return;
+
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))) {
+            if (reader.peek() == JsonToken.NULL) return;
+
+            VoteBuffer buffer = new VoteBuffer();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                consumer.accept(readPoll(reader, buffer, metadataOnly));
+            }
+            reader.endArray();
+        } catch (IllegalStateException | IllegalArgumentException | JsonParseException e) {
+            throw new IOException("Malformed polls file", e);
+        }
+    }
+
+    private static PollManager.Poll readPoll(JsonReader reader, VoteBuffer buffer, boolean metadataOnly)
+            throws IOException {
+        UUID id = null;
+        String customId = null;
+        String name = null;
+        long duration = 0;
+        UUID creatorId = null;
+        String creatorName = null;
+        List<String> options = List.of();
+        VotingMode mode = VotingMode.SINGLE;
+        boolean active = false;
+        long startTime = 0;
+        long endTime = 0;
+        buffer.clear();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String field = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "id" -> id = UUID.fromString(reader.nextString());
+                case "customId" -> customId = reader.nextString();
+                case "name" -> name = reader.nextString();
+                case "duration" -> duration = reader.nextLong();
+                case "creatorId" -> creatorId = UUID.fromString(reader.nextString());
+                case "creatorName" -> creatorName = reader.nextString();
+                case "options" -> {
+                    List<String> read = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        read.add(reader.nextString());
+                    }
+                    reader.endArray();
+                    options = read;
+                }
+                case "mode" -> {
+                    String modeName = reader.nextString();
+                    mode = VotingMode.fromName(modeName);
+                    if (mode == null) {
+                        throw new JsonParseException("Unknown voting mode " + modeName);
+                    }
+                }
+                case "active" -> active = reader.nextBoolean();
+                case "startTime" -> startTime = reader.nextLong();
+                case "endTime" -> endTime = reader.nextLong();
+                case "votes" -> {
+                    if (metadataOnly) {
+                        reader.skipValue();
+                    } else {
+                        readVotes(reader, buffer);
+                    }
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (id == null || creatorId == null) {
+            throw new JsonParseException("Poll entry is missing its id or creatorId");
+        }
+
+        PollManager.Poll poll = new PollSerializer.PollData(id, customId, name, duration, creatorId, creatorName,
+                options, null, active, startTime, endTime, mode).toPoll();
+        if (metadataOnly) {
+            poll.markVotesPending();
+        } else {
+            buffer.drainTo(poll);
+        }
+        return poll;
+    }
+
+    private static void readVotes(JsonReader reader, VoteBuffer buffer) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            buffer.add(UUID.fromString(reader.nextName()), reader.nextInt());
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Reads the votes of a poll by scanning the file for it. Files hold a single poll, so this
+     * costs one pass over the file.
+     */
+    @Override
+    public VoteReader openVoteReader(File file) {
+        return (pollId, consumer) -> {
+            if (file.length() == 0) return false;
+            try (JsonReader reader = new JsonReader(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))) {
+                if (reader.peek() == JsonToken.NULL) return false;
+
+                VoteBuffer buffer = new VoteBuffer();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    boolean match = false;
+                    buffer.clear();
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String field = reader.nextName();
+                        if (reader.peek() == JsonToken.NULL) {
+                            reader.nextNull();
+                        } else if (field.equals("id")) {
+                            match = pollId.equals(UUID.fromString(reader.nextString()));
+                        } else if (field.equals("votes")) {
+                            readVotes(reader, buffer);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    if (match) {
+                        buffer.drainTo(consumer);
+                        return true;
+                    }
+                }
+                reader.endArray();
+                return false;
+            } catch (IllegalStateException | IllegalArgumentException | JsonParseException e) {
+                throw new IOException("Malformed polls file", e);
+            }
+        };
+    }
+
+    /**
+     * Reusable primitive buffer holding the votes of the poll currently being read.
+     * Votes may appear before the options in the file, so they cannot always be applied directly.
+     */
+    private static final class VoteBuffer {
+        private long[] voterBits = new long[32];
+        private int[] options = new int[16];
+        private int size;
+
+        void add(UUID voterId, int option) {
+            if (size == options.length) {
+                options = Arrays.copyOf(options, size * 2);
+                voterBits = Arrays.copyOf(voterBits, size * 4);
+            }
+            voterBits[size * 2] = voterId.getMostSignificantBits();
+            voterBits[size * 2 + 1] = voterId.getLeastSignificantBits();
+            options[size++] = option;
+        }
+
+        void drainTo(PollManager.Poll poll) {
+            poll.reserveVotes(size);
+            for (int i = 0; i < size; i++) {
+                poll.restoreVote(voterBits[i * 2], voterBits[i * 2 + 1], options[i]);
+            }
+            clear();
+        }
+
+        void drainTo(BiConsumer<UUID, Integer> consumer) {
+            for (int i = 0; i < size; i++) {
+                consumer.accept(new UUID(voterBits[i * 2], voterBits[i * 2 + 1]), options[i]);
+            }
+            clear();
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
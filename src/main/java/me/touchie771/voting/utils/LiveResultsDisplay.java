@@ -0,0 +1,134 @@
+package me.touchie771.voting.utils;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shows the live results of active polls in a boss bar.
+ * Each watched poll has a single boss bar shared by all of its viewers. Every update interval the
+ * bar is re-rendered once, and only if the poll published new {@link PollResults} since the last
+ * render, so the cost does not depend on the number of viewers. Counts are never recounted from
+ * the votes.
+ */
+public class LiveResultsDisplay {
+
+    private static final Map<UUID, Display> displays = new ConcurrentHashMap<>();
+    private static JavaPlugin plugin;
+    private static ScheduledTask task;
+
+    public static void initialize(JavaPlugin plugin) {
+        LiveResultsDisplay.plugin = plugin;
+        long interval = Math.max(1, plugin.getConfig().getLong("live-results.update-interval-ticks", 20));
+        task = plugin.getServer().getGlobalRegionScheduler()
+                .runAtFixedRate(plugin, scheduledTask -> tick(), interval, interval);
+    }
+
+    /**
+     * Hides every boss bar and stops updating them. Called when the plugin is disabled.
+     */
+    public static synchronized void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (Display display : displays.values()) {
+            for (UUID viewerId : display.viewers) {
+                Player viewer = plugin.getServer().getPlayer(viewerId);
+                if (viewer != null) {
+                    viewer.hideBossBar(display.bar);
+                }
+            }
+        }
+        displays.clear();
+    }
+
+    /**
+     * Shows the poll's results to the player, or hides them if the player was already watching it.
+     *
+     * @param player the player
+     * @param poll the poll, must be active to be watched
+     * @return true if the player is now watching the poll
+     */
+    public static synchronized boolean toggle(Player player, PollManager.Poll poll) {
+        UUID viewerId = player.getUniqueId();
+        Display existing = displays.get(poll.getId());
+        if (existing != null && existing.viewers.remove(viewerId)) {
+            SchedulerUtil.runForPlayer(player, () -> player.hideBossBar(existing.bar));
+            return false;
+        }
+
+        Display display = displays.computeIfAbsent(poll.getId(), id -> new Display(poll));
+        display.viewers.add(viewerId);
+        display.refresh();
+        SchedulerUtil.runForPlayer(player, () -> player.showBossBar(display.bar));
+        return true;
+    }
+
+    private static synchronized void tick() {
+        Iterator<Display> iterator = displays.values().iterator();
+        while (iterator.hasNext()) {
+            Display display = iterator.next();
+            display.viewers.removeIf(viewerId -> plugin.getServer().getPlayer(viewerId) == null);
+
+            if (!display.poll.isActive() || display.viewers.isEmpty()) {
+                iterator.remove();
+                for (UUID viewerId : display.viewers) {
+                    Player viewer = plugin.getServer().getPlayer(viewerId);
+                    if (viewer != null) {
+                        SchedulerUtil.runForPlayer(viewer, () -> viewer.hideBossBar(display.bar));
+                    }
+                }
+                continue;
+            }
+            display.refresh();
+        }
+    }
+
+    private static final class Display {
+        private final PollManager.Poll poll;
+        private final BossBar bar;
+        private final Set<UUID> viewers = ConcurrentHashMap.newKeySet();
+        private PollResults rendered;
+
+        private Display(PollManager.Poll poll) {
+            this.poll = poll;
+            this.bar = BossBar.bossBar(Component.empty(), 0f, BossBar.Color.YELLOW, BossBar.Overlay.PROGRESS);
+        }
+
+        /**
+         * Re-renders the bar if the poll changed and its votes were read. The bar pushes the update to all of its viewers.
+         */
+        private synchronized void refresh() {
+            // Rendered on a later tick once the votes were read
+            if (!poll.isLoaded()) return;
+            PollResults results = poll.getResults();
+            if (results == rendered) return;
+            rendered = results;
+
+            int leader = results.leadingOption();
+            if (leader < 0) {
+                bar.name(Messages.LIVE_RESULTS_NO_VOTES.render(Placeholder.unparsed("question", poll.getName())));
+                bar.progress(0f);
+                return;
+            }
+            // Ranked polls show the runoff winner with its share of the final round
+            float share = (float) results.share(leader);
+            bar.name(Messages.LIVE_RESULTS.render(
+                    Placeholder.unparsed("question", poll.getName()),
+                    Placeholder.unparsed("option", poll.getOptions().get(leader)),
+                    Placeholder.unparsed("percent", String.valueOf(Math.round(share * 100))),
+                    Placeholder.unparsed("votes", String.valueOf(results.voterCount()))));
+            bar.progress(share);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package me.touchie771.voting.utils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for a message bus. Every transport created by the same {@link Hub} receives
+ * the messages sent by the others, synchronously on the sending thread. Used to run several
+ * {@link PollSync} nodes in one JVM, e.g. in tests or when trying out sync without a proxy.
+ */
+public class LocalSyncTransport implements PollSync.Transport {
+
+    private final Hub hub;
+    private volatile Consumer<byte[]> receiver;
+
+    private LocalSyncTransport(Hub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        hub.nodes.add(this);
+    }
+
+    @Override
+    public void send(byte[] message) {
+        for (LocalSyncTransport node : hub.nodes) {
+            Consumer<byte[]> target = node.receiver;
+            if (node != this && target != null) {
+                target.accept(message.clone());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        hub.nodes.remove(this);
+        receiver = null;
+    }
+
+    /**
+     * Connects the transports of several nodes.
+     */
+    public static class Hub {
+        private final List<LocalSyncTransport> nodes = new CopyOnWriteArrayList<>();
+
+        public LocalSyncTransport connect() {
+            return new LocalSyncTransport(this);
+        }
+    }
+}
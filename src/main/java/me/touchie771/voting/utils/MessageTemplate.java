@@ -0,0 +1,109 @@
+package me.touchie771.voting.utils;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.Inserting;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A MiniMessage message that is parsed once and reused.
+ * Dynamic values are passed as {@link TagResolver} placeholders, e.g.
+ * {@code Placeholder.unparsed("poll_id", id)}, instead of being concatenated into the template,
+ * so values entered by players can never inject formatting tags.
+ * <p>
+ * Placeholders are parsed as slots, marked by a private use character around their name, and
+ * filled in with {@link Component#replaceText} on every render. Only placeholders that insert a
+ * fixed component, like {@code Placeholder.unparsed} and {@code Placeholder.component}, can fill
+ * a slot; templates rendered with any other resolver are parsed in full on every call.
+ */
+public final class MessageTemplate {
+
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+    private static final char SLOT = '\uE000';
+    private static final Pattern SLOT_PATTERN = Pattern.compile(SLOT + "([^" + SLOT + "]+)" + SLOT);
+    private static final Pattern PLACEHOLDER = Pattern.compile("<([A-Za-z0-9_-]+)>");
+    private static final TagResolver STANDARD_TAGS = TagResolver.standard();
+
+    private final String template;
+    // Parsed on first use, with a slot in place of every placeholder
+    private volatile Parsed parsed;
+
+    private MessageTemplate(String template) {
+        this.template = template;
+    }
+
+    /**
+     * @param template the MiniMessage template, placeholders are written as tags like {@code <poll_id>}
+     * @return the template
+     */
+    public static MessageTemplate of(String template) {
+        return new MessageTemplate(template);
+    }
+
+    /**
+     * Renders the template with the given placeholders. The template is only parsed once; the
+     * placeholders are filled into the parsed component.
+     *
+     * @param placeholders the values of the placeholders used in the template
+     * @return the rendered component
+     */
+    public Component render(TagResolver... placeholders) {
+        Parsed current = parsed;
+        if (current == null) {
+            current = parse();
+            parsed = current;
+        }
+        if (!current.hasSlots()) {
+            return current.component();
+        }
+
+        Map<String, Component> values = new HashMap<>();
+        for (TagResolver placeholder : placeholders) {
+            if (!(placeholder instanceof TagResolver.Single single) || !(single.tag() instanceof Inserting inserting)) {
+                return MINI_MESSAGE.deserialize(template, TagResolver.resolver(placeholders));
+            }
+            // The first resolver for a name wins, as it does when parsing
+            values.putIfAbsent(single.key(), inserting.value());
+        }
+        Map<String, String> spellings = current.spellings();
+        return current.component().replaceText(TextReplacementConfig.builder()
+                .match(SLOT_PATTERN)
+                // Placeholders without a value are shown as written, like MiniMessage shows unknown tags
+                .replacement((match, builder) -> values.getOrDefault(match.group(1),
+                        Component.text("<" + spellings.get(match.group(1)) + ">")))
+                .build());
+    }
+
+    private Parsed parse() {
+        // MiniMessage passes tag names lowercased, keep the spelling to show unfilled placeholders as written
+        Map<String, String> spellings = new HashMap<>();
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        while (matcher.find()) {
+            spellings.putIfAbsent(matcher.group(1).toLowerCase(Locale.ROOT), matcher.group(1));
+        }
+        boolean[] hasSlots = {false};
+        // Every tag that is not a formatting tag is a placeholder and becomes a slot
+        TagResolver slots = (TagResolver.WithoutArguments) name -> {
+            if (STANDARD_TAGS.has(name) || !spellings.containsKey(name)) return null;
+            hasSlots[0] = true;
+            return Tag.selfClosingInserting(Component.text(SLOT + name + SLOT));
+        };
+        Component component = MINI_MESSAGE.deserialize(template, slots);
+        return new Parsed(component, hasSlots[0], spellings);
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+    private record Parsed(Component component, boolean hasSlots, Map<String, String> spellings) {}
+}
@@ -1,22 +1,70 @@
 package me.touchie771.voting.utils;
 
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
 import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Utility class for handling messages sent to players using MiniMessage formatting.
  */
 public class MessageUtil {
-    
+
     private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
-    
+
     /**
      * Sends a formatted message to a player using MiniMessage.
-     * 
+     * The message is parsed on every call; prefer {@link #sendMessage(Audience, MessageTemplate, TagResolver...)}
+     * and never concatenate player input into the message.
+     *
      * @param player the player to send the message to
      * @param message the message to send (can contain MiniMessage formatting)
      */
     public static void sendMessage(Player player, String message) {
         player.sendMessage(MINI_MESSAGE.deserialize(message));
     }
+
+    /**
+     * Sends a message template to an audience.
+     *
+     * @param audience the audience to send the message to
+     * @param template the message template
+     * @param placeholders the values of the placeholders used in the template
+     */
+    public static void sendMessage(Audience audience, MessageTemplate template, TagResolver... placeholders) {
+        audience.sendMessage(template.render(placeholders));
+    }
+
+    /**
+     * Starts a message of several lines that is sent as a single component.
+     *
+     * @return an empty message
+     */
+    public static Lines lines() {
+        return new Lines();
+    }
+
+    /**
+     * Collects rendered lines and sends them joined by newlines in one message.
+     */
+    public static final class Lines {
+        private final List<Component> lines = new ArrayList<>();
+
+        private Lines() {}
+
+        public Lines add(MessageTemplate template, TagResolver... placeholders) {
+            lines.add(template.render(placeholders));
+            return this;
+        }
+
+        public void send(Audience audience) {
+            if (lines.isEmpty()) return;
+            audience.sendMessage(Component.join(JoinConfiguration.newlines(), lines));
+        }
+    }
 }
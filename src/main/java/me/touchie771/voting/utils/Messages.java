@@ -0,0 +1,110 @@
+package me.touchie771.voting.utils;
+
+/**
+ * All messages sent by the plugin.
+ * Static messages are parsed once on first use; dynamic values are passed as placeholders.
+ */
+public final class Messages {
+
+    private Messages() {}
+
+    // General
+    public static final MessageTemplate NO_PERMISSION = MessageTemplate.of("<red>You don't have permission to use this command.</red>");
+    public static final MessageTemplate POLL_USAGE = MessageTemplate.of("<red>Usage: /poll <create|start|stop|vote|unvote|stats|list|watch></red>");
+    public static final MessageTemplate UNKNOWN_SUBCOMMAND = MessageTemplate.of("<red>Unknown subcommand: </red><white><subcommand></white>");
+    public static final MessageTemplate POLL_NOT_FOUND = MessageTemplate.of("<red>Poll not found: </red><white><poll_id></white>");
+    public static final MessageTemplate NOT_POLL_OWNER = MessageTemplate.of("<red>You can only manage your own polls!</red>");
+    public static final MessageTemplate POLL_LOADING = MessageTemplate.of("<yellow>Poll </yellow><white><poll_id></white><yellow> is still loading, please try again in a moment.</yellow>");
+    public static final MessageTemplate RATE_LIMITED = MessageTemplate.of("<red>You're doing that too often, please wait </red><white><seconds>s</white><red>.</red>");
+    public static final MessageTemplate QUEUE_FULL = MessageTemplate.of("<red>Too many votes are being processed right now, please try again in a moment.</red>");
+
+    // Create
+    public static final MessageTemplate CREATE_USAGE = MessageTemplate.of("<red>Usage: /poll create <id> \"question\" \"option1, option2, option3\" [single|weighted|ranked]</red>");
+    public static final MessageTemplate CREATE_USAGE_HINT = MessageTemplate.of("<gray>Usage: /poll create <id> \"question\" \"option1, option2, option3\" [single|weighted|ranked]</gray>");
+    public static final MessageTemplate CREATE_ID_RULES = MessageTemplate.of("<gray>ID must be 3-16 characters: lowercase letters, numbers, underscores, and hyphens only</gray>");
+    public static final MessageTemplate CREATE_EMPTY_QUESTION = MessageTemplate.of("<red>Question cannot be empty!</red>");
+    public static final MessageTemplate CREATE_MISSING_OPTIONS = MessageTemplate.of("<red>Missing options argument!</red>");
+    public static final MessageTemplate CREATE_EMPTY_OPTIONS = MessageTemplate.of("<red>Options cannot be empty!</red>");
+    public static final MessageTemplate CREATE_TOO_FEW_OPTIONS = MessageTemplate.of("<red>Poll must have at least 2 options separated by commas!</red>");
+    public static final MessageTemplate CREATE_INVALID_MODE = MessageTemplate.of("<red>Unknown voting mode: </red><white><mode></white><red>. Use single, weighted or ranked.</red>");
+    public static final MessageTemplate CREATE_SUCCESS = MessageTemplate.of("<green>Poll created successfully!</green>");
+    public static final MessageTemplate CREATE_POLL_ID = MessageTemplate.of("<gray>Poll ID: </gray><white><poll_id></white>");
+    public static final MessageTemplate CREATE_QUESTION = MessageTemplate.of("<gray>Question: </gray><white><question></white>");
+    public static final MessageTemplate CREATE_MODE = MessageTemplate.of("<gray>Voting mode: </gray><white><mode></white>");
+    public static final MessageTemplate CREATE_START_HINT = MessageTemplate.of("<gray>Use </gray><yellow>/poll start <poll_id></yellow><gray> to begin voting.</gray>");
+    public static final MessageTemplate CREATE_ERROR = MessageTemplate.of("<red>Error: </red><white><error></white>");
+
+    // Start and stop
+    public static final MessageTemplate START_USAGE = MessageTemplate.of("<red>Usage: /poll start <pollId></red>");
+    public static final MessageTemplate START_SUCCESS = MessageTemplate.of("<green>Poll started: </green><white><poll_id></white>");
+    public static final MessageTemplate START_FAILED = MessageTemplate.of("<red>Failed to start poll: </red><white><poll_id></white>");
+    public static final MessageTemplate STOP_USAGE = MessageTemplate.of("<red>Usage: /poll stop <pollId></red>");
+    public static final MessageTemplate STOP_SUCCESS = MessageTemplate.of("<green>Poll stopped: </green><white><poll_id></white>");
+    public static final MessageTemplate STOP_FAILED = MessageTemplate.of("<red>Failed to stop poll: </red><white><poll_id></white>");
+
+    // Vote and unvote
+    public static final MessageTemplate VOTE_USAGE = MessageTemplate.of("<red>Usage: /poll vote <pollId> <optionNumber> [nextChoice...]</red>");
+    public static final MessageTemplate VOTE_OPTION_NOT_A_NUMBER = MessageTemplate.of("<red>Option number must be a valid integer!</red>");
+    public static final MessageTemplate VOTE_OPTION_NOT_POSITIVE = MessageTemplate.of("<red>Option number must be positive!</red>");
+    public static final MessageTemplate VOTE_POLL_INACTIVE = MessageTemplate.of("<red>This poll is not active!</red>");
+    public static final MessageTemplate VOTE_CAST = MessageTemplate.of("<green>Vote cast for option </green><white><option></white>");
+    public static final MessageTemplate VOTE_RANKING_CAST = MessageTemplate.of("<green>Ranking cast: </green><white><ranking></white>");
+    public static final MessageTemplate VOTE_WEIGHT = MessageTemplate.of("<gray>Your vote counts </gray><white><weight></white><gray> times.</gray>");
+    public static final MessageTemplate VOTE_TOO_MANY_CHOICES = MessageTemplate.of("<red>You can rank at most </red><white><max></white><red> options!</red>");
+    public static final MessageTemplate VOTE_DUPLICATE_CHOICE = MessageTemplate.of("<red>Each option can only be ranked once!</red>");
+    public static final MessageTemplate VOTE_CHANGED = MessageTemplate.of("<yellow>You already voted! Your vote has been changed.</yellow>");
+    public static final MessageTemplate VOTE_INVALID_OPTION = MessageTemplate.of("<red>Invalid option number!</red>");
+    public static final MessageTemplate VOTE_FAILED = MessageTemplate.of("<red>Your vote could not be recorded, please try again.</red>");
+    public static final MessageTemplate UNVOTE_USAGE = MessageTemplate.of("<red>Usage: /poll unvote <pollId></red>");
+    public static final MessageTemplate UNVOTE_SUCCESS = MessageTemplate.of("<green>Your vote has been removed.</green>");
+    public static final MessageTemplate UNVOTE_NOT_VOTED = MessageTemplate.of("<red>You haven't voted in this poll.</red>");
+    public static final MessageTemplate UNVOTE_FAILED = MessageTemplate.of("<red>Your vote could not be removed, please try again.</red>");
+
+    // Stats
+    public static final MessageTemplate STATS_USAGE = MessageTemplate.of("<red>Usage: /poll stats <pollId></red>");
+    public static final MessageTemplate STATS_HEADER = MessageTemplate.of("<gold>=== Poll Stats ===</gold>");
+    public static final MessageTemplate STATS_ID = MessageTemplate.of("<gray>ID: </gray><white><poll_id></white>");
+    public static final MessageTemplate STATS_CUSTOM_ID = MessageTemplate.of("<gray>Custom ID: </gray><white><custom_id></white>");
+    public static final MessageTemplate STATS_QUESTION = MessageTemplate.of("<gray>Question: </gray><white><question></white>");
+    public static final MessageTemplate STATS_CREATOR = MessageTemplate.of("<gray>Creator: </gray><white><creator></white>");
+    public static final MessageTemplate STATS_MODE = MessageTemplate.of("<gray>Voting mode: </gray><white><mode></white>");
+    public static final MessageTemplate STATS_STATUS_ACTIVE = MessageTemplate.of("<gray>Status: </gray><green>Active</green>");
+    public static final MessageTemplate STATS_STATUS_INACTIVE = MessageTemplate.of("<gray>Status: </gray><red>Inactive</red>");
+    public static final MessageTemplate STATS_TIME_LEFT = MessageTemplate.of("<gray>Time left: </gray><white><seconds> seconds</white>");
+    public static final MessageTemplate STATS_OPTIONS = MessageTemplate.of("<gray>Options:</gray>");
+    public static final MessageTemplate STATS_OPTION = MessageTemplate.of("<white><number>. </white><gray><option> </gray><dark_gray>(</dark_gray><white><votes> votes</white><dark_gray>)</dark_gray>");
+    public static final MessageTemplate STATS_OPTION_RANKED = MessageTemplate.of("<white><number>. </white><gray><option> </gray><dark_gray>(</dark_gray><white><votes> first choices</white><dark_gray>)</dark_gray>");
+    public static final MessageTemplate STATS_TOTAL_VOTES = MessageTemplate.of("<gray>Total votes: </gray><white><votes></white>");
+    public static final MessageTemplate STATS_VOTERS = MessageTemplate.of("<gray>Voters: </gray><white><voters></white>");
+    public static final MessageTemplate STATS_RUNOFF = MessageTemplate.of("<gray>Instant runoff:</gray>");
+    public static final MessageTemplate STATS_RUNOFF_ROUND = MessageTemplate.of("<white>Round <round>: </white><gray><totals></gray><dark_gray> - </dark_gray><red><option> eliminated</red>");
+    public static final MessageTemplate STATS_RUNOFF_FINAL_ROUND = MessageTemplate.of("<white>Round <round>: </white><gray><totals></gray>");
+    public static final MessageTemplate STATS_RUNOFF_WINNER = MessageTemplate.of("<gray>Winner: </gray><green><option></green>");
+
+    // Watch
+    public static final MessageTemplate WATCH_USAGE = MessageTemplate.of("<red>Usage: /poll watch <pollId></red>");
+    public static final MessageTemplate WATCH_POLL_INACTIVE = MessageTemplate.of("<red>Only active polls can be watched.</red>");
+    public static final MessageTemplate WATCH_STARTED = MessageTemplate.of("<green>Showing live results of </green><white><poll_id></white>");
+    public static final MessageTemplate WATCH_STOPPED = MessageTemplate.of("<gray>No longer showing live results of </gray><white><poll_id></white>");
+    public static final MessageTemplate LIVE_RESULTS = MessageTemplate.of("<gold><question></gold><gray> - </gray><white><option></white><gray> leads with </gray><white><percent>%</white><dark_gray> (<votes> votes)</dark_gray>");
+    public static final MessageTemplate LIVE_RESULTS_NO_VOTES = MessageTemplate.of("<gold><question></gold><gray> - no votes yet</gray>");
+
+    // Metrics
+    public static final MessageTemplate METRICS_HEADER = MessageTemplate.of("<gold>=== Voting Metrics ===</gold>");
+    public static final MessageTemplate METRICS_POLLS = MessageTemplate.of("<gray>Polls: </gray><white><polls></white><gray> (</gray><white><active></white><gray> active)</gray>");
+    public static final MessageTemplate METRICS_CHANGES = MessageTemplate.of("<gray>Votes: </gray><white><votes></white><gray>, unvotes: </gray><white><unvotes></white><gray>, creates: </gray><white><creates></white><gray>, rejected: </gray><white><rejected></white><gray>, rate limited: </gray><white><limited></white><gray>, from other servers: </gray><white><remote></white>");
+    public static final MessageTemplate METRICS_LOOKUPS = MessageTemplate.of("<gray>Lookups: </gray><white><custom></white><gray> by custom ID, </gray><white><uuid></white><gray> by UUID, </gray><white><short></white><gray> by short ID, </gray><white><missed></white><gray> not found</gray>");
+    public static final MessageTemplate METRICS_QUEUES = MessageTemplate.of("<gray>Queued: </gray><white><votes></white><gray> votes, </gray><white><writes></white><gray> unsaved changes</gray>");
+    public static final MessageTemplate METRICS_TIMING = MessageTemplate.of("<gray><name>: </gray><white><count></white><gray> runs, mean </gray><white><mean> ms</white><gray>, p99 </gray><white><p99> ms</white><gray>, max </gray><white><max> ms</white>");
+    public static final MessageTemplate METRICS_SAVED_BYTES = MessageTemplate.of("<gray>Last snapshot: </gray><white><last></white><gray>, written in total: </gray><white><total></white>");
+
+    // List
+    public static final MessageTemplate LIST_PAGE_NOT_A_NUMBER = MessageTemplate.of("<red>Page number must be a valid integer!</red>");
+    public static final MessageTemplate LIST_PAGE_NOT_POSITIVE = MessageTemplate.of("<red>Page number must be positive!</red>");
+    public static final MessageTemplate LIST_EMPTY = MessageTemplate.of("<gray>You haven't created any polls.</gray>");
+    public static final MessageTemplate LIST_PAGE_OUT_OF_RANGE = MessageTemplate.of("<red>Page </red><white><page></white><red> does not exist. You have </red><white><pages></white><red> pages.</red>");
+    public static final MessageTemplate LIST_HEADER = MessageTemplate.of("<gold>=== Your Polls (<page>/<pages>) ===</gold>");
+    public static final MessageTemplate LIST_ENTRY_ACTIVE = MessageTemplate.of("<gray><poll_id> - </gray><green>Active</green><gray> - </gray><white><question></white>");
+    public static final MessageTemplate LIST_ENTRY_INACTIVE = MessageTemplate.of("<gray><poll_id> - </gray><red>Inactive</red><gray> - </gray><white><question></white>");
+    public static final MessageTemplate LIST_NEXT_PAGE = MessageTemplate.of("<gray>Use </gray><yellow>/poll list <page></yellow><gray> to see the next page.</gray>");
+}
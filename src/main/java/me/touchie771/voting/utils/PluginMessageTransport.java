@@ -0,0 +1,150 @@
+package me.touchie771.voting.utils;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Carries poll sync messages between the servers behind a BungeeCord or Velocity proxy, using the
+ * "Forward" request of the BungeeCord plugin channel.
+ * Plugin messages travel through a player connection, so messages are held back while nobody is
+ * online and sent once the next player joins. The proxy only delivers them to servers that have
+ * players online as well.
+ */
+public class PluginMessageTransport implements PollSync.Transport, PluginMessageListener, Listener {
+
+    private static final String CHANNEL = "BungeeCord";
+    private static final String SUBCHANNEL = "VotingSync";
+    // Forwarded payloads are length-prefixed with a short, leave room for the forward header
+    private static final int MAX_PAYLOAD = Short.MAX_VALUE - 64;
+    private static final int MAX_HELD_MESSAGES = 1000;
+
+    private final JavaPlugin plugin;
+    private final Queue<byte[]> held = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger heldCount = new AtomicInteger();
+    // Set while messages wait for a player to join, so that is only reported once
+    private final AtomicBoolean waitingForPlayer = new AtomicBoolean();
+    private volatile Consumer<byte[]> receiver;
+
+    public PluginMessageTransport(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, CHANNEL);
+        plugin.getServer().getMessenger().registerIncomingPluginChannel(plugin, CHANNEL, this);
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    @Override
+    public void send(byte[] message) {
+        if (heldCount.incrementAndGet() > MAX_HELD_MESSAGES) {
+            held.poll();
+            heldCount.decrementAndGet();
+            plugin.getLogger().warning("More than " + MAX_HELD_MESSAGES
+                    + " poll sync messages are waiting to be sent, dropping the oldest one");
+        }
+        held.add(message);
+        SchedulerUtil.runGlobal(this::sendHeld);
+    }
+
+    @Override
+    public int maxMessageSize() {
+        return MAX_PAYLOAD;
+    }
+
+    @Override
+    public void close() {
+        plugin.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin, CHANNEL);
+        plugin.getServer().getMessenger().unregisterIncomingPluginChannel(plugin, CHANNEL, this);
+        receiver = null;
+    }
+
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        if (!held.isEmpty()) {
+            SchedulerUtil.runForPlayer(event.getPlayer(), () -> sendHeld(event.getPlayer()));
+        }
+    }
+
+    private void sendHeld() {
+        Player carrier = null;
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            carrier = player;
+            break;
+        }
+        if (carrier == null) {
+            if (!held.isEmpty() && waitingForPlayer.compareAndSet(false, true)) {
+                plugin.getLogger().warning("No player online to carry poll sync messages, holding them until one joins");
+            }
+            return;
+        }
+        waitingForPlayer.set(false);
+        Player player = carrier;
+        SchedulerUtil.runForPlayer(player, () -> sendHeld(player));
+    }
+
+    /**
+     * Sends every held message through the given player. Runs on the player's thread, so messages
+     * sent through the same player keep their order.
+     */
+    private void sendHeld(Player player) {
+        waitingForPlayer.set(false);
+        List<byte[]> messages = new ArrayList<>();
+        byte[] message;
+        while ((message = held.poll()) != null) {
+            heldCount.decrementAndGet();
+            messages.add(message);
+        }
+        for (byte[] payload : messages) {
+            player.sendPluginMessage(plugin, CHANNEL, forward(payload));
+        }
+    }
+
+    private static byte[] forward(byte[] payload) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Forward");
+            out.writeUTF("ALL");
+            out.writeUTF(SUBCHANNEL);
+            out.writeShort(payload.length);
+            out.write(payload);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+        Consumer<byte[]> target = receiver;
+        if (target == null || !CHANNEL.equals(channel)) return;
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (!SUBCHANNEL.equals(in.readUTF())) return;
+            byte[] payload = new byte[in.readUnsignedShort()];
+            in.readFully(payload);
+            target.accept(payload);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Ignoring truncated poll sync message");
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package me.touchie771.voting.utils;
 
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import org.bukkit.entity.Player;
+import org.bukkit.permissions.PermissionAttachmentInfo;
 
 import java.util.function.BiConsumer;
 
@@ -9,17 +11,25 @@ import java.util.function.BiConsumer;
  * for accessing polls with proper permission checking and error handling.
  */
 public class PollCommandHelper {
+
+    private static final String WEIGHT_PERMISSION = "voting.weight.";
     
     /**
-     * Executes an action with a poll if it exists, otherwise sends an error message.
+     * Executes an action with a poll if it exists and its votes are loaded, otherwise sends an
+     * error message. Polls are only unloaded for a short while after startup.
      * 
      * @param pollId the ID of the poll to find
      * @param player the player executing the command
      * @param action the action to execute with the poll and player
      */
     public static void withPoll(String pollId, Player player, BiConsumer<PollManager.Poll, Player> action) {
-        PollManager.getPollById(pollId).ifPresentOrElse(poll -> action.accept(poll, player), 
-            () -> MessageUtil.sendMessage(player, "<red>Poll not found: </red><white>" + pollId + "</white>"));
+        PollManager.getPollById(pollId).ifPresentOrElse(poll -> {
+            if (!poll.isLoaded()) {
+                MessageUtil.sendMessage(player, Messages.POLL_LOADING, Placeholder.unparsed("poll_id", pollId));
+                return;
+            }
+            action.accept(poll, player);
+        }, () -> MessageUtil.sendMessage(player, Messages.POLL_NOT_FOUND, Placeholder.unparsed("poll_id", pollId)));
     }
 
     /**
@@ -33,14 +43,35 @@ public class PollCommandHelper {
     public static void requirePollOwnership(Player player, String pollId, BiConsumer<PollManager.Poll, Player> action) {
         PollManager.getPollById(pollId).map(poll -> {
             if (!poll.getCreatorId().equals(player.getUniqueId())) {
-                MessageUtil.sendMessage(player, "<red>You can only manage your own polls!</red>");
+                MessageUtil.sendMessage(player, Messages.NOT_POLL_OWNER);
                 return null;
             }
             action.accept(poll, player);
             return poll;
         }).orElseGet(() -> {
-            MessageUtil.sendMessage(player, "<red>Poll not found: </red><white>" + pollId + "</white>");
+            MessageUtil.sendMessage(player, Messages.POLL_NOT_FOUND, Placeholder.unparsed("poll_id", pollId));
             return null;
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the weight of a player's vote in weighted polls: the highest {@code n} of the
+     * granted {@code voting.weight.<n>} permissions, or 1 without any.
+     *
+     * @param player the voting player
+     * @return the weight, at most {@link Ballot#MAX_WEIGHT}
+     */
+    public static int voteWeight(Player player) {
+        int weight = 1;
+        for (PermissionAttachmentInfo permission : player.getEffectivePermissions()) {
+            String node = permission.getPermission();
+            if (!permission.getValue() || !node.startsWith(WEIGHT_PERMISSION)) continue;
+            try {
+                weight = Math.max(weight, Integer.parseInt(node.substring(WEIGHT_PERMISSION.length())));
+            } catch (NumberFormatException ignored) {
+                // Not a weight node
+            }
+        }
+        return Math.min(weight, Ballot.MAX_WEIGHT);
+    }
+}
@@ -0,0 +1,69 @@
+package me.touchie771.voting.utils;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Comparator;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Closes polls once their end time has passed.
+ * Running polls are kept in a priority queue ordered by end time, so each check only looks at
+ * the head of the queue instead of scanning every poll.
+ */
+public class PollExpiryScheduler {
+
+    private static final long CHECK_INTERVAL_TICKS = 20L;
+
+    private final PriorityBlockingQueue<Entry> queue =
+            new PriorityBlockingQueue<>(16, Comparator.comparingLong(Entry::endTime));
+    private final Consumer<Entry> expireAction;
+    private ScheduledTask task;
+
+    /**
+     * @param expireAction called for every entry whose end time has passed
+     */
+    public PollExpiryScheduler(Consumer<Entry> expireAction) {
+        this.expireAction = expireAction;
+    }
+
+    public void start(JavaPlugin plugin) {
+        // Global region thread, the same thread that starts and stops polls
+        task = plugin.getServer().getGlobalRegionScheduler()
+                .runAtFixedRate(plugin, scheduledTask -> tick(), CHECK_INTERVAL_TICKS, CHECK_INTERVAL_TICKS);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Schedules the poll to be closed at its current end time.
+     * Entries that became stale because the poll was stopped or restarted are ignored when they fire.
+     *
+     * @param poll the running poll
+     */
+    public void schedule(PollManager.Poll poll) {
+        queue.add(new Entry(poll, poll.getEndTime()));
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        Entry head;
+        while ((head = queue.peek()) != null && head.endTime() <= now) {
+            Entry due = queue.poll();
+            if (due != null) {
+                expireAction.accept(due);
+            }
+        }
+    }
+
+    /**
+     * A poll together with the end time it was scheduled for.
+     */
+    public record Entry(PollManager.Poll poll, long endTime) {}
+}
@@ -0,0 +1,89 @@
+package me.touchie771.voting.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * An on-disk encoding of polls.
+ * Implementations only encode and decode; {@link PollSerializer} takes care of temporary files,
+ * atomic replacement and migration between formats.
+ */
+public interface PollFormat {
+
+    /**
+     * Returns the name of the single snapshot file used by older versions, read for migration only.
+     *
+     * @return the snapshot file name
+     */
+    String fileName();
+
+    /**
+     * Returns the extension of the files written in this format, including the dot.
+     *
+     * @return the file extension
+     */
+    String extension();
+
+    /**
+     * Writes the given polls to the file and syncs it to disk.
+     *
+     * @param file the file to write, replaced if it exists
+     * @param polls the polls to write
+     * @throws IOException if the file could not be written
+     */
+    void write(File file, List<PollManager.Poll> polls) throws IOException;
+
+    /**
+     * Streams every poll stored in the file to the given consumer.
+     *
+     * @param file the file to read
+     * @param consumer receives each poll as soon as it is decoded
+     * @param lazyClosedPolls whether closed polls may be restored with only their tallies resident,
+     *                        which requires {@link #openVoteReader(File)} to be supported
+     * @throws IOException if the file could not be read or is corrupt
+     */
+    void read(File file, Consumer<PollManager.Poll> consumer, boolean lazyClosedPolls) throws IOException;
+
+    /**
+     * Streams every poll stored in the file without decoding its voters. The polls are returned
+     * with their votes pending, to be read later through {@link #openVoteReader(File)}.
+     *
+     * @param file the file to read
+     * @param consumer receives each poll as soon as its metadata is decoded
+     * @param lazyClosedPolls whether closed polls may instead be restored with only their tallies resident
+     * @throws IOException if the file could not be read or is corrupt
+     */
+    void readMetadata(File file, Consumer<PollManager.Poll> consumer, boolean lazyClosedPolls) throws IOException;
+
+    /**
+     * Opens a reader for the votes of individual polls in the file, used to read the votes of polls
+     * loaded by {@link #readMetadata} and of closed polls on demand.
+     *
+     * @param file the file to read
+     * @return the reader, or null if this format does not support reading single polls
+     * @throws IOException if the file could not be opened
+     */
+    default VoteReader openVoteReader(File file) throws IOException {
+        return null;
+    }
+
+    /**
+     * Random access to the votes of the polls within one file.
+     */
+    interface VoteReader {
+
+        /**
+         * Streams the votes of the given poll.
+         *
+         * @param pollId the poll to read the votes of
+         * @param consumer receives each voter and their ballot
+         * @return false if the poll is not part of the snapshot
+         * @throws IOException if the file is corrupt
+         */
+        boolean readVotes(UUID pollId, BiConsumer<UUID, Integer> consumer) throws IOException;
+    }
+}
@@ -0,0 +1,159 @@
+package me.touchie771.voting.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only journal of poll changes stored next to the polls file.
+ * Each change is a single line of JSON, so recording a vote is a small sequential append
+ * instead of a rewrite of every poll. The journal is replayed on top of the last snapshot
+ * on startup and emptied whenever a new snapshot is written.
+ */
+public class PollJournal {
+    private static final Gson GSON = new Gson();
+
+    private final Logger logger;
+    private final File journalFile;
+    private int entries;
+
+    public PollJournal(JavaPlugin plugin) {
+        this(new File(plugin.getDataFolder(), "polls.journal"), plugin.getLogger());
+    }
+
+    PollJournal(File journalFile, Logger logger) {
+        this.logger = logger;
+        this.journalFile = journalFile;
+    }
+
+    /**
+     * Appends the given events to the journal and syncs them to disk.
+     *
+     * @param events the events to append, in the order they happened
+     * @return true if the events were written successfully
+     */
+    public synchronized boolean append(List<Event> events) {
+        try (FileOutputStream out = new FileOutputStream(journalFile, true);
+             Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            for (Event event : events) {
+                writer.write(GSON.toJson(event));
+                writer.write('\n');
+            }
+            writer.flush();
+            out.getFD().sync();
+            entries += events.size();
+            return true;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to append to poll journal", e);
+            return false;
+        }
+    }
+
+    /**
+     * Replays every event in the journal. A partially written last line, left behind by a crash,
+     * is skipped.
+     *
+     * @param consumer receives each event in the order it was written
+     * @return the number of events replayed
+     */
+    public synchronized int replay(Consumer<Event> consumer) {
+        entries = 0;
+        if (!journalFile.exists()) return 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    Event event = GSON.fromJson(line, Event.class);
+                    if (event != null && event.type() != null) {
+                        consumer.accept(event);
+                        entries++;
+                    }
+                } catch (JsonParseException e) {
+                    logger.warning("Skipping corrupt poll journal entry: " + line);
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to read poll journal", e);
+        }
+
+        if (entries > 0) {
+            logger.info("Replayed " + entries + " journal entries");
+        }
+        return entries;
+    }
+
+    /**
+     * Empties the journal. Only call this after a snapshot containing every journaled change was written.
+     *
+     * @return true if the journal was truncated successfully
+     */
+    public synchronized boolean truncate() {
+        try (FileOutputStream out = new FileOutputStream(journalFile, false)) {
+            out.getFD().sync();
+            entries = 0;
+            return true;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Failed to truncate poll journal", e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the number of events currently stored in the journal.
+     *
+     * @return the journal length in events
+     */
+    public synchronized int size() {
+        return entries;
+    }
+
+    public enum Type {
+        CREATE, START, STOP, VOTE, UNVOTE
+    }
+
+    /**
+     * A single journaled change. Replaying an event is idempotent, so events that are already
+     * contained in the snapshot can safely be applied again. The option of a vote event holds the
+     * {@link Ballot} that was cast.
+     */
+    public record Event(Type type, UUID pollId, UUID voterId, int option, long startTime, long endTime,
+                        PollSerializer.PollData poll) {
+
+        public static Event create(PollManager.Poll poll) {
+            return new Event(Type.CREATE, poll.getId(), null, 0, 0, 0, PollSerializer.PollData.fromPoll(poll));
+        }
+
+        public static Event start(PollManager.Poll poll) {
+            PollManager.Poll.State state = poll.getState();
+            return new Event(Type.START, poll.getId(), null, 0, state.startTime(), state.endTime(), null);
+        }
+
+        public static Event stop(PollManager.Poll poll) {
+            return new Event(Type.STOP, poll.getId(), null, 0, 0, 0, null);
+        }
+
+        public static Event vote(PollManager.Poll poll, UUID voterId, int ballot) {
+            return new Event(Type.VOTE, poll.getId(), voterId, ballot, 0, 0, null);
+        }
+
+        public static Event unvote(PollManager.Poll poll, UUID voterId) {
+            return new Event(Type.UNVOTE, poll.getId(), voterId, 0, 0, 0, null);
+        }
+    }
+}
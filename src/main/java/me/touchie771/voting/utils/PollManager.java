@@ -4,46 +4,354 @@ import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 public abstract class PollManager {
 
     private static final Set<Poll> pollSet = ConcurrentHashMap.newKeySet();
     private static final Map<UUID, Poll> pollMap = new ConcurrentHashMap<>();
     private static final Map<String, Poll> customIdMap = new ConcurrentHashMap<>();
-    private static PollSerializer serializer;
+    private static final Map<String, Poll> shortIdMap = new ConcurrentHashMap<>();
+    private static final Map<UUID, List<Poll>> creatorIndex = new ConcurrentHashMap<>();
+    // Display IDs in sorted order, so prefix completion is a range scan
+    private static final NavigableMap<String, Poll> idIndex = new ConcurrentSkipListMap<>();
+    private static final NavigableMap<String, Poll> activeIdIndex = new ConcurrentSkipListMap<>();
+    private static PollStore store;
+    private static PollExpiryScheduler expiryScheduler;
+    private static ClosedPollCache closedPollCache;
+    private static VoteIngestor voteIngestor;
+    private static VoteLoader voteLoader;
+    private static PollSync sync;
+    private static ForkJoinPool loadPool;
+    private static Logger logger;
     
     // Reserved command names that cannot be used as poll IDs
     private static final Set<String> RESERVED_IDS = Set.of(
-        "list", "active", "create", "start", "stop", "vote", "unvote", "stats"
+        "list", "active", "create", "start", "stop", "vote", "unvote", "stats", "watch", "metrics"
     );
 
     public static void initialize(JavaPlugin plugin) {
-        PollManager.serializer = new PollSerializer(plugin);
-        loadPolls();
+        PollManager.logger = plugin.getLogger();
+        PollManager.store = PollStore.create(plugin, () -> new ArrayList<>(pollSet), PollManager::trimClosedPolls);
+        PollManager.expiryScheduler = new PollExpiryScheduler(PollManager::expirePoll);
+        if (store.supportsLazyVotes()) {
+            int residentClosedPolls = plugin.getConfig().getInt("storage.resident-closed-polls", 100);
+            PollManager.closedPollCache = new ClosedPollCache(residentClosedPolls);
+            PollManager.voteLoader = new VoteLoader() {
+                @Override
+                public void loadVotes(UUID pollId, BiConsumer<UUID, Integer> consumer) throws IOException {
+                    store.loadVotes(pollId, consumer);
+                }
+
+                @Override
+                public boolean execute(Runnable task) {
+                    return store.execute(task);
+                }
+
+                @Override
+                public void onLoaded(Poll poll) {
+                    closedPollCache.touch(poll);
+                }
+            };
+        }
+        int loadParallelism = plugin.getConfig().getInt("storage.load-parallelism", 0);
+        loadPolls(loadParallelism > 0 ? loadParallelism : Runtime.getRuntime().availableProcessors());
+        expiryScheduler.start(plugin);
+
+        int queueCapacity = plugin.getConfig().getInt("votes.queue-capacity", 10000);
+        int voteBatchSize = plugin.getConfig().getInt("votes.batch-size", 500);
+        PollStore pollStore = store;
+        PollManager.voteIngestor = new VoteIngestor(plugin.getLogger(), queueCapacity, voteBatchSize,
+                PollManager::record, pollStore::requestFlush);
+
+        if (plugin.getConfig().getBoolean("sync.enabled", false)) {
+            long flushInterval = plugin.getConfig().getLong("sync.flush-interval-millis", 100);
+            int syncBatchSize = plugin.getConfig().getInt("sync.batch-size", 200);
+            enableSync(new PollSync(new PluginMessageTransport(plugin), plugin.getLogger(),
+                    PollManager::applyRemoteEvent, PollManager::runOnIngestor, flushInterval, syncBatchSize));
+        }
     }
-    
+
+    /**
+     * Starts replicating poll changes to other servers through the given sync layer.
+     * Changes made before this call are not replicated.
+     *
+     * @param pollSync the sync layer, created with {@link #applyRemoteEvent} as its applier
+     */
+    static void enableSync(PollSync pollSync) {
+        PollManager.sync = pollSync;
+        pollSync.start();
+    }
+
+    /**
+     * Writes any pending changes to disk on the calling thread.
+     */
     public static void savePolls() {
-        if (serializer != null) {
-            serializer.savePolls(new ArrayList<>(pollSet));
+        if (store != null) {
+            store.flush();
+        }
+    }
+
+    /**
+     * Stops the background writer and performs the final save. Called when the plugin is disabled.
+     */
+    public static void shutdown() {
+        // Nothing may be saved while votes are still being read
+        if (loadPool != null) {
+            loadPool.close();
+            loadPool = null;
+        }
+        // Apply queued votes first so the final save and the last broadcast contain them
+        if (voteIngestor != null) {
+            voteIngestor.shutdown();
+            voteIngestor = null;
+        }
+        if (sync != null) {
+            sync.shutdown();
+            sync = null;
+        }
+        if (expiryScheduler != null) {
+            expiryScheduler.stop();
+            expiryScheduler = null;
+        }
+        if (store != null) {
+            store.shutdown();
+            store = null;
+        }
+        closedPollCache = null;
+        voteLoader = null;
+    }
+
+    private static void record(PollJournal.Event event) {
+        switch (event.type()) {
+            case CREATE -> PollMetrics.CREATES.increment();
+            case VOTE -> PollMetrics.VOTES.increment();
+            case UNVOTE -> PollMetrics.UNVOTES.increment();
+            default -> { }
+        }
+        if (store != null) {
+            store.record(event);
+        }
+        PollSync pollSync = sync;
+        if (pollSync != null) {
+            pollSync.publish(event);
+        }
+    }
+
+    private static void runOnIngestor(Runnable task) {
+        VoteIngestor ingestor = voteIngestor;
+        if (ingestor == null || !ingestor.execute(task)) {
+            throw new RejectedExecutionException("Vote ingestor is shut down");
+        }
+    }
+
+    /**
+     * Applies a change received from another server and persists it locally without replicating it again.
+     * Runs on the vote ingestor thread, so it never interleaves with local votes.
+     */
+    static void applyRemoteEvent(PollJournal.Event event) {
+        if (event.type() == PollJournal.Type.CREATE && event.poll() != null) {
+            String customId = event.poll().customId();
+            Poll existing = customId == null ? null : customIdMap.get(customId.toLowerCase());
+            if (existing != null && !existing.getId().equals(event.pollId())) {
+                logger.warning("Ignoring poll " + customId + " created on another server, the ID is already taken");
+                return;
+            }
+        } else if (!pollMap.containsKey(event.pollId())) {
+            return;
+        }
+
+        applyJournalEvent(event);
+        PollMetrics.REMOTE_CHANGES.increment();
+        Poll poll = pollMap.get(event.pollId());
+        switch (event.type()) {
+            case START -> {
+                activeIdIndex.put(indexKey(poll), poll);
+                if (expiryScheduler != null) {
+                    expiryScheduler.schedule(poll);
+                }
+            }
+            case STOP -> {
+                activeIdIndex.remove(indexKey(poll), poll);
+                touchClosedPoll(poll);
+            }
+            default -> { }
+        }
+
+        if (store != null) {
+            store.record(event);
+            store.requestFlush();
         }
     }
     
-    private static void loadPolls() {
-        if (serializer == null) return;
+    /**
+     * Loads the polls in two passes. The metadata of every poll is read on the calling thread, so
+     * polls can be listed and completed as soon as the plugin is enabled. Votes the store did not
+     * read yet are decoded afterwards on a fork-join pool, active polls first; until then commands
+     * report the poll as loading.
+     */
+    private static void loadPolls(int parallelism) {
+        if (store == null) return;
         
-        List<PollSerializer.PollData> pollDataList = serializer.loadPolls();
-        for (PollSerializer.PollData pollData : pollDataList) {
-            Poll poll = pollData.toPoll();
-            pollSet.add(poll);
-            pollMap.put(poll.getId(), poll);
-            
-            // Add to customIdMap if customId is not null (for backward compatibility)
-            if (poll.getCustomId() != null && !poll.getCustomId().trim().isEmpty()) {
-                customIdMap.put(poll.getCustomId().toLowerCase(), poll);
+        long start = System.nanoTime();
+        List<Poll> pending = new ArrayList<>();
+        store.load(poll -> {
+            registerPoll(poll);
+            if (!poll.isLoaded()) {
+                pending.add(poll);
+            }
+        }, PollManager::applyJournalEvent, closedPollCache != null);
+
+        // Close polls whose end time passed while the server was offline, schedule the rest
+        for (Poll poll : pollSet) {
+            if (poll.expire(poll.getEndTime(), System.currentTimeMillis())) {
+                record(PollJournal.Event.stop(poll));
+            } else if (poll.isActive()) {
+                expiryScheduler.schedule(poll);
+                activeIdIndex.put(indexKey(poll), poll);
+            }
+            // Closed polls that were migrated, replayed or just expired still have their votes resident
+            if (!poll.isActive()) {
+                touchClosedPoll(poll);
             }
         }
+        trimClosedPolls();
+
+        if (pending.isEmpty()) {
+            PollMetrics.LOADS.recordSince(start);
+            return;
+        }
+        logger.info("Loaded " + pollSet.size() + " polls in " + (System.nanoTime() - start) / 1_000_000
+                + " ms, reading the votes of " + pending.size() + " in the background");
+        Map<Boolean, List<Poll>> byActive = pending.stream().collect(Collectors.partitioningBy(Poll::isActive));
+        loadPool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Voting-Loader-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        loadPool.execute(() -> {
+            byActive.get(true).parallelStream().forEach(PollManager::readPendingVotes);
+            byActive.get(false).parallelStream().forEach(PollManager::readPendingVotes);
+            trimClosedPolls();
+            PollMetrics.LOADS.recordSince(start);
+            logger.info("Read the votes of " + pending.size() + " polls in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        });
+    }
+
+    private static void readPendingVotes(Poll poll) {
+        VoteTable votes = new VoteTable();
+        try {
+            store.loadVotes(poll.getId(), votes::put);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Failed to read the votes of poll " + poll.getDisplayId()
+                    + ", it stays unavailable until the next restart", e);
+            // Unregistered first, so the empty votes released to waiting threads are never saved
+            unregisterPoll(poll);
+            poll.completeVotes(new VoteTable());
+            return;
+        }
+        poll.completeVotes(votes);
+        if (!poll.isActive()) {
+            touchClosedPoll(poll);
+        }
+    }
+
+    private static void touchClosedPoll(Poll poll) {
+        if (closedPollCache != null && poll.hasResidentVotes()) {
+            closedPollCache.touch(poll);
+        }
+    }
+
+    private static void trimClosedPolls() {
+        if (closedPollCache != null) {
+            closedPollCache.trim();
+        }
+    }
+
+    private static void expirePoll(PollExpiryScheduler.Entry entry) {
+        Poll poll = entry.poll();
+        if (poll.expire(entry.endTime(), System.currentTimeMillis())) {
+            record(PollJournal.Event.stop(poll));
+            activeIdIndex.remove(indexKey(poll), poll);
+            touchClosedPoll(poll);
+        }
+    }
+
+    private static void applyJournalEvent(PollJournal.Event event) {
+        if (event.type() == PollJournal.Type.CREATE) {
+            if (event.poll() != null && !pollMap.containsKey(event.pollId())) {
+                registerPoll(event.poll().toPoll());
+            }
+            return;
+        }
+
+        Poll poll = pollMap.get(event.pollId());
+        if (poll == null) return;
+
+        switch (event.type()) {
+            case START -> poll.restoreState(true, event.startTime(), event.endTime());
+            case STOP -> poll.restoreState(false, poll.getStartTime(), poll.getEndTime());
+            case VOTE -> poll.restoreVote(event.voterId(), event.option());
+            case UNVOTE -> poll.restoreUnvote(event.voterId());
+            default -> { }
+        }
+    }
+
+    private static void registerPoll(Poll poll) {
+        poll.setVoteLoader(voteLoader);
+        pollSet.add(poll);
+        pollMap.put(poll.getId(), poll);
+        shortIdMap.putIfAbsent(poll.getShortId(), poll);
+        creatorIndex.computeIfAbsent(poll.getCreatorId(), creator -> new CopyOnWriteArrayList<>()).add(poll);
+        idIndex.putIfAbsent(indexKey(poll), poll);
+
+        // Add to customIdMap if customId is not null (for backward compatibility)
+        if (poll.getCustomId() != null && !poll.getCustomId().trim().isEmpty()) {
+            customIdMap.put(poll.getCustomId().toLowerCase(), poll);
+        }
+    }
+
+    private static void unregisterPoll(Poll poll) {
+        pollSet.remove(poll);
+        pollMap.remove(poll.getId(), poll);
+        shortIdMap.remove(poll.getShortId(), poll);
+        List<Poll> created = creatorIndex.get(poll.getCreatorId());
+        if (created != null) {
+            created.remove(poll);
+        }
+        idIndex.remove(indexKey(poll), poll);
+        activeIdIndex.remove(indexKey(poll), poll);
+        if (poll.getCustomId() != null) {
+            customIdMap.remove(poll.getCustomId().toLowerCase(), poll);
+        }
+        PollSync pollSync = sync;
+        if (pollSync != null) {
+            pollSync.forget(poll.getId());
+        }
+    }
+
+    private static String indexKey(Poll poll) {
+        return poll.getDisplayId().toLowerCase(Locale.ROOT);
     }
 
     public static PollBuilder getBuilder() {
@@ -54,36 +362,131 @@ public abstract class PollManager {
         // Try custom ID first
         Poll customPoll = customIdMap.get(pollId.toLowerCase());
         if (customPoll != null) {
+            PollMetrics.LOOKUPS_CUSTOM_ID.increment();
             return Optional.of(customPoll);
         }
         
-        // Try full UUID
-        try {
-            UUID uuid = UUID.fromString(pollId);
-            return Optional.ofNullable(pollMap.get(uuid));
-        } catch (IllegalArgumentException e) {
-            // Try short ID lookup
-            return pollSet.stream()
-                    .filter(poll -> poll.getShortId().equals(pollId))
-                    .findFirst();
+        // Try full UUID, only parsing input that has the length of one
+        Poll poll;
+        if (pollId.length() == 36) {
+            try {
+                poll = pollMap.get(UUID.fromString(pollId));
+            } catch (IllegalArgumentException e) {
+                poll = null;
+            }
+            (poll != null ? PollMetrics.LOOKUPS_UUID : PollMetrics.LOOKUPS_MISSED).increment();
+            return Optional.ofNullable(poll);
         }
+
+        // Try short ID lookup
+        poll = shortIdMap.get(pollId);
+        (poll != null ? PollMetrics.LOOKUPS_SHORT_ID : PollMetrics.LOOKUPS_MISSED).increment();
+        return Optional.ofNullable(poll);
+    }
+
+    /**
+     * Returns the number of votes and unvotes waiting to be applied.
+     *
+     * @return the vote queue length
+     */
+    public static int voteQueueDepth() {
+        VoteIngestor ingestor = voteIngestor;
+        return ingestor != null ? ingestor.pending() : 0;
+    }
+
+    /**
+     * Returns the number of changes waiting to be written to storage.
+     *
+     * @return the number of unsaved changes
+     */
+    public static int pendingWrites() {
+        PollStore pollStore = store;
+        return pollStore != null ? pollStore.pendingChanges() : 0;
     }
 
     public static List<Poll> getPollsByCreator(Player player) {
-        return pollSet.stream()
-                .filter(poll -> poll.getCreatorId().equals(player.getUniqueId()))
-                .toList();
+        List<Poll> polls = creatorIndex.get(player.getUniqueId());
+        return polls != null ? Collections.unmodifiableList(polls) : List.of();
+    }
+
+    /**
+     * Returns one page of the polls created by the given player.
+     *
+     * @see #getPollsByCreator(UUID, int, int)
+     */
+    public static PollPage getPollsByCreator(Player player, int page, int pageSize) {
+        return getPollsByCreator(player.getUniqueId(), page, pageSize);
+    }
+
+    /**
+     * Returns one page of the polls created by the given player, in the order they were
+     * registered; after a restart that is the order they were loaded in, not creation order.
+     * Only the player's own polls are touched, regardless of how many polls exist in total.
+     *
+     * @param creatorId the creator of the polls
+     * @param page the zero-based page number
+     * @param pageSize the maximum number of polls per page
+     * @return the requested page, empty if the page is out of range
+     */
+    public static PollPage getPollsByCreator(UUID creatorId, int page, int pageSize) {
+        List<Poll> polls = creatorIndex.getOrDefault(creatorId, List.of());
+        // Copy-on-write list, so this array is a stable snapshot
+        Poll[] snapshot = polls.toArray(new Poll[0]);
+        int totalPages = Math.max(1, (snapshot.length + pageSize - 1) / pageSize);
+        // Checked before multiplying, so a huge page number cannot overflow the offset
+        if (page < 0 || page >= totalPages || snapshot.length == 0) {
+            return new PollPage(List.of(), page, totalPages, snapshot.length);
+        }
+        int from = page * pageSize;
+        int to = Math.min(from + pageSize, snapshot.length);
+        return new PollPage(List.of(Arrays.copyOfRange(snapshot, from, to)), page, totalPages, snapshot.length);
     }
 
     public static List<Poll> getAllPolls() {
         return new ArrayList<>(pollSet);
     }
 
+    public static int getPollCount() {
+        return pollMap.size();
+    }
+
+    public static int getActivePollCount() {
+        return activeIdIndex.size();
+    }
+
+    /**
+     * Returns the display IDs of polls starting with the given prefix, in alphabetical order.
+     * Only the matching range of the sorted ID index is visited, regardless of how many polls exist.
+     *
+     * @param prefix the typed prefix, matched case-insensitively
+     * @param activeOnly whether only running polls should be returned
+     * @param limit the maximum number of IDs to return
+     * @return the matching IDs
+     */
+    public static List<String> completePollIds(String prefix, boolean activeOnly, int limit) {
+        String from = prefix.toLowerCase(Locale.ROOT);
+        NavigableMap<String, Poll> index = activeOnly ? activeIdIndex : idIndex;
+        List<String> matches = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, Poll> entry : index.tailMap(from, true).entrySet()) {
+            if (matches.size() >= limit || !entry.getKey().startsWith(from)) break;
+            // The active index can briefly contain polls that passed their end time
+            if (!activeOnly || entry.getValue().isActive()) {
+                matches.add(entry.getKey());
+            }
+        }
+        return matches;
+    }
+
     public static boolean startPoll(String pollId) {
         Optional<Poll> pollOpt = getPollById(pollId);
         if (pollOpt.isPresent()) {
-            pollOpt.get().start();
-            savePolls();
+            if (pollOpt.get().start()) {
+                record(PollJournal.Event.start(pollOpt.get()));
+                activeIdIndex.put(indexKey(pollOpt.get()), pollOpt.get());
+                if (expiryScheduler != null) {
+                    expiryScheduler.schedule(pollOpt.get());
+                }
+            }
             return true;
         }
         return false;
@@ -92,37 +495,89 @@ public abstract class PollManager {
     public static boolean stopPoll(String pollId) {
         Optional<Poll> pollOpt = getPollById(pollId);
         if (pollOpt.isPresent()) {
-            pollOpt.get().stop();
-            savePolls();
+            if (pollOpt.get().stop()) {
+                record(PollJournal.Event.stop(pollOpt.get()));
+                activeIdIndex.remove(indexKey(pollOpt.get()), pollOpt.get());
+                touchClosedPoll(pollOpt.get());
+            }
             return true;
         }
         return false;
     }
 
+    /**
+     * Votes for a single option through the vote ingestor, so the vote is journaled and
+     * replicated like one cast with /poll vote. The vote is applied off the calling thread.
+     *
+     * @return false if the poll does not exist, the option is out of range, or too many votes are queued
+     */
     public static boolean vote(String pollId, Player player, int optionIndex) {
         Optional<Poll> pollOpt = getPollById(pollId);
-        if (pollOpt.isPresent()) {
-            boolean result = pollOpt.get().vote(player, optionIndex);
-            if (result) {
-                savePolls();
-            }
-            return result;
+        if (pollOpt.isEmpty()) {
+            return false;
         }
-        return false;
+        Poll poll = pollOpt.get();
+        if (optionIndex < 0 || optionIndex >= poll.getOptions().size()) {
+            return false;
+        }
+        return submitVote(poll, player, poll.getMode().ballotFor(optionIndex), result -> { });
     }
 
+    /**
+     * Removes a vote through the vote ingestor, like /poll unvote. The vote is removed off the
+     * calling thread.
+     *
+     * @return false if the poll does not exist or too many votes are queued
+     */
     public static boolean unvote(String pollId, Player player) {
         Optional<Poll> pollOpt = getPollById(pollId);
-        if (pollOpt.isPresent()) {
-            boolean result = pollOpt.get().unvote(player);
-            if (result) {
-                savePolls();
-            }
-            return result;
+        return pollOpt.isPresent() && submitUnvote(pollOpt.get(), player, result -> { });
+    }
+
+    /**
+     * Queues a vote to be applied off the calling thread. The callback runs on the player's own
+     * scheduler once the vote was applied, and is skipped if the player left in the meantime.
+     *
+     * @param poll the poll to vote in
+     * @param player the voting player
+     * @param ballot the {@link Ballot} to cast
+     * @param callback receives the outcome of the vote
+     * @return false if the vote was rejected because too many votes are queued
+     */
+    public static boolean submitVote(Poll poll, Player player, int ballot, Consumer<VoteIngestor.Result> callback) {
+        VoteIngestor ingestor = voteIngestor;
+        boolean queued = ingestor != null
+                && ingestor.submitVote(poll, player.getUniqueId(), ballot, result -> runFor(player, result, callback));
+        if (!queued) {
+            PollMetrics.REJECTED_VOTES.increment();
         }
-        return false;
+        return queued;
     }
 
+    /**
+     * Queues the removal of a vote to be applied off the calling thread.
+     *
+     * @see #submitVote(Poll, Player, int, Consumer)
+     */
+    public static boolean submitUnvote(Poll poll, Player player, Consumer<VoteIngestor.Result> callback) {
+        VoteIngestor ingestor = voteIngestor;
+        boolean queued = ingestor != null
+                && ingestor.submitUnvote(poll, player.getUniqueId(), result -> runFor(player, result, callback));
+        if (!queued) {
+            PollMetrics.REJECTED_VOTES.increment();
+        }
+        return queued;
+    }
+
+    private static void runFor(Player player, VoteIngestor.Result result, Consumer<VoteIngestor.Result> callback) {
+        SchedulerUtil.runForPlayer(player, () -> callback.accept(result));
+    }
+
+    /**
+     * A single page of polls.
+     */
+    public record PollPage(List<Poll> polls, int page, int totalPages, int totalPolls) {}
+
     public static class PollBuilder {
         private String customId;
         private String name;
@@ -130,6 +585,7 @@ public abstract class PollManager {
         private UUID creatorId;
         private String creatorName;
         private List<String> options = new ArrayList<>();
+        private VotingMode mode = VotingMode.SINGLE;
 
         public PollBuilder customId(String customId) {
             this.customId = customId.toLowerCase().trim(); // Auto-normalize to lowercase
@@ -147,8 +603,12 @@ public abstract class PollManager {
         }
 
         public PollBuilder creator(Player creator) {
-            this.creatorId = creator.getUniqueId();
-            this.creatorName = creator.getName();
+            return creator(creator.getUniqueId(), creator.getName());
+        }
+
+        public PollBuilder creator(UUID creatorId, String creatorName) {
+            this.creatorId = creatorId;
+            this.creatorName = creatorName;
             return this;
         }
 
@@ -157,6 +617,11 @@ public abstract class PollManager {
             return this;
         }
 
+        public PollBuilder mode(VotingMode mode) {
+            this.mode = mode;
+            return this;
+        }
+
         public Poll build() {
             if (customId == null || customId.trim().isEmpty()) {
                 throw new IllegalArgumentException("Poll custom ID cannot be empty");
@@ -173,6 +638,15 @@ public abstract class PollManager {
             if (options.size() < 2) {
                 throw new IllegalArgumentException("Poll must have at least 2 options");
             }
+            if (options.size() > Ballot.MAX_OPTIONS) {
+                throw new IllegalArgumentException("Poll cannot have more than " + Ballot.MAX_OPTIONS + " options");
+            }
+            if (mode == null) {
+                throw new IllegalArgumentException("Poll voting mode cannot be null");
+            }
+            if (mode == VotingMode.RANKED && options.size() > Ballot.MAX_RANKED_OPTIONS) {
+                throw new IllegalArgumentException("Ranked polls cannot have more than " + Ballot.MAX_RANKED_OPTIONS + " options");
+            }
             if (creatorId == null) {
                 throw new IllegalArgumentException("Poll creator cannot be null");
             }
@@ -182,15 +656,13 @@ public abstract class PollManager {
             }
             
             // Check for custom ID collision
-            String normalizedId = getString();
+            getString();
 
             // Create poll first to get short ID
             Poll poll = getPoll();
 
-            pollSet.add(poll);
-            pollMap.put(poll.getId(), poll);
-            customIdMap.put(normalizedId, poll);
-            savePolls();
+            registerPoll(poll);
+            record(PollJournal.Event.create(poll));
             return poll;
         }
 
@@ -201,10 +673,8 @@ public abstract class PollManager {
             }
 
             // Check for collision with existing short IDs
-            for (Poll existingPoll : pollSet) {
-                if (existingPoll.getShortId().equals(normalizedId)) {
-                    throw new IllegalArgumentException("Poll ID '" + customId + "' conflicts with an existing poll's short ID");
-                }
+            if (shortIdMap.containsKey(normalizedId)) {
+                throw new IllegalArgumentException("Poll ID '" + customId + "' conflicts with an existing poll's short ID");
             }
             return normalizedId;
         }
@@ -212,98 +682,529 @@ public abstract class PollManager {
         private @NotNull Poll getPoll() {
             Poll poll = new Poll(this);
 
-            // Check for short ID collision
-            for (Poll existingPoll : pollSet) {
-                if (existingPoll.getShortId().equals(poll.getShortId())) {
-                    // Collision detected, create new poll with different UUID
-                    poll = new Poll(this);
-                    // Check again (very unlikely to collide twice)
-                    for (Poll existingPoll2 : pollSet) {
-                        if (existingPoll2.getShortId().equals(poll.getShortId())) {
-                            throw new RuntimeException("Unable to generate unique short ID");
-                        }
-                    }
+            // Check for short ID collision, including custom IDs that look like short IDs
+            if (isShortIdTaken(poll.getShortId())) {
+                // Collision detected, create new poll with different UUID
+                poll = new Poll(this);
+                // Check again (very unlikely to collide twice)
+                if (isShortIdTaken(poll.getShortId())) {
+                    throw new RuntimeException("Unable to generate unique short ID");
                 }
             }
             return poll;
         }
+
+        private boolean isShortIdTaken(String shortId) {
+            return shortIdMap.containsKey(shortId) || customIdMap.containsKey(shortId);
+        }
     }
 
     public static class Poll {
         private final UUID id;
+        private final String shortId;
         private final String customId;
         private final String name;
         private final long duration;
         private final UUID creatorId;
         private final String creatorName;
         private final List<String> options;
-        private final Map<UUID, Integer> votes;
-        private boolean active;
-        private long startTime;
-        private long endTime;
+        private final VotingMode mode;
+        private final AtomicIntegerArray tallies;
+        // Only set for ranked polls; counts the distinct rankings for the runoff
+        private final RankedTally rankedTally;
+        private final StampedLock votesLock = new StampedLock();
+        private final AtomicLong version = new AtomicLong();
+        private volatile long persistedVersion;
+        private volatile PollResults results;
+        // Set while the votes are still being read in the background after startup
+        private volatile PendingVotes pendingVotes;
+        // Null while the votes of a closed poll are unloaded; only the tallies stay resident then
+        private volatile VoteTable votes;
+        private volatile int unloadedVoterCount;
+        private VoteLoader voteLoader;
+        private final AtomicBoolean votesRequested = new AtomicBoolean();
+        // Replaced as a whole, so readers never see a start time from one run and an end time from another
+        private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
 
         public Poll(PollBuilder pollBuilder) {
             this.id = UUID.randomUUID();
+            this.shortId = id.toString().substring(0, 8);
             this.customId = pollBuilder.customId;
             this.name = pollBuilder.name;
             this.duration = pollBuilder.duration;
             this.creatorId = pollBuilder.creatorId;
             this.creatorName = pollBuilder.creatorName;
             this.options = List.copyOf(pollBuilder.options);
-            this.votes = new ConcurrentHashMap<>();
-            this.active = false;
+            this.mode = pollBuilder.mode;
+            this.votes = new VoteTable();
+            this.tallies = new AtomicIntegerArray(options.size());
+            this.rankedTally = mode == VotingMode.RANKED ? new RankedTally(options.size()) : null;
+            // Not part of any snapshot yet
+            this.version.set(1);
         }
         
         public Poll(PollSerializer.PollData pollData) {
             this.id = pollData.id();
+            this.shortId = id.toString().substring(0, 8);
             this.customId = pollData.customId();
             this.name = pollData.name();
             this.duration = pollData.duration();
             this.creatorId = pollData.creatorId();
             this.creatorName = pollData.creatorName();
             this.options = List.copyOf(pollData.options());
-            this.votes = new ConcurrentHashMap<>(pollData.votes());
-            this.active = pollData.active();
-            this.startTime = pollData.startTime();
-            this.endTime = pollData.endTime();
+            // Polls stored before voting modes existed have none
+            this.mode = pollData.mode() != null ? pollData.mode() : VotingMode.SINGLE;
+            this.votes = new VoteTable();
+            this.tallies = new AtomicIntegerArray(options.size());
+            this.rankedTally = mode == VotingMode.RANKED ? new RankedTally(options.size()) : null;
+            if (pollData.votes() != null) {
+                pollData.votes().forEach(this::restoreVote);
+            }
+            this.state.set(new State(pollData.active(), pollData.startTime(), pollData.endTime()));
+            // Only polls read from their own file are marked as persisted by the serializer
+            this.version.incrementAndGet();
+        }
+
+        /**
+         * Starts the poll unless it is already running.
+         *
+         * @return true if the poll was started by this call
+         */
+        public boolean start() {
+            while (true) {
+                State current = state.get();
+                long now = System.currentTimeMillis();
+                if (current.isRunning(now)) {
+                    return false;
+                }
+                if (state.compareAndSet(current, new State(true, now, now + duration))) {
+                    version.incrementAndGet();
+                    return true;
+                }
+            }
         }
 
-        public void start() {
-            if (!active) {
-                this.active = true;
-                this.startTime = System.currentTimeMillis();
-                this.endTime = startTime + duration;
+        /**
+         * Closes the poll unless it is already closed.
+         *
+         * @return true if the poll was closed by this call
+         */
+        public boolean stop() {
+            while (true) {
+                State current = state.get();
+                if (!current.active()) {
+                    return false;
+                }
+                if (state.compareAndSet(current, new State(false, current.startTime(), current.endTime()))) {
+                    version.incrementAndGet();
+                    return true;
+                }
             }
         }
 
-        public void stop() {
-            this.active = false;
+        /**
+         * Closes the poll if it is still running with the given end time and that time has passed.
+         *
+         * @param endTime the end time the poll was scheduled with
+         * @param now the current time in milliseconds
+         * @return true if the poll was closed by this call
+         */
+        boolean expire(long endTime, long now) {
+            State current = state.get();
+            if (!current.active() || current.endTime() != endTime || now < endTime) {
+                return false;
+            }
+            // Fails if the poll was stopped or restarted concurrently
+            if (!state.compareAndSet(current, new State(false, current.startTime(), endTime))) {
+                return false;
+            }
+            version.incrementAndGet();
+            return true;
         }
 
         public boolean vote(Player player, int optionIndex) {
-            if (!active || optionIndex < 0 || optionIndex >= options.size()) {
+            return vote(player.getUniqueId(), optionIndex);
+        }
+
+        /**
+         * Votes for a single option with weight one; in a ranked poll, ranks only that option.
+         * Like every vote mutator of the poll, this only changes the votes in memory: it is neither
+         * journaled nor replicated. Use {@link PollManager#vote(String, Player, int)} for a vote that is.
+         */
+        public boolean vote(UUID voterId, int optionIndex) {
+            if (optionIndex < 0 || optionIndex >= options.size()) {
                 return false;
             }
-            votes.put(player.getUniqueId(), optionIndex);
+            return castBallot(voterId, mode.ballotFor(optionIndex));
+        }
+
+        /**
+         * Casts a ballot, replacing the previous one of the voter. Not journaled, see {@link #vote(UUID, int)}.
+         *
+         * @param voterId the voter
+         * @param ballot a {@link Ballot} matching the voting mode of the poll
+         * @return false if the poll is not active or the ballot is not valid for it
+         */
+        public boolean castBallot(UUID voterId, int ballot) {
+            if (!isActive() || !mode.isValid(ballot, options.size())) {
+                return false;
+            }
+            putVote(voterId.getMostSignificantBits(), voterId.getLeastSignificantBits(), ballot);
             return true;
         }
 
         public boolean unvote(Player player) {
-            return votes.remove(player.getUniqueId()) != null;
+            return unvote(player.getUniqueId());
+        }
+
+        /**
+         * Removes the vote of the voter. Not journaled, see {@link PollManager#unvote(String, Player)}.
+         */
+        public boolean unvote(UUID voterId) {
+            return removeVote(voterId);
+        }
+
+        void restoreState(boolean active, long startTime, long endTime) {
+            state.set(new State(active, startTime, endTime));
+            version.incrementAndGet();
+        }
+
+        void restoreVote(UUID voterId, int ballot) {
+            if (deferIfPending(voterId, ballot)) return;
+            restoreVote(voterId.getMostSignificantBits(), voterId.getLeastSignificantBits(), ballot);
+        }
+
+        void restoreVote(long voterMost, long voterLeast, int ballot) {
+            if (mode.isValid(ballot, options.size())) {
+                putVote(voterMost, voterLeast, ballot);
+            }
+        }
+
+        void restoreUnvote(UUID voterId) {
+            if (deferIfPending(voterId, -1)) return;
+            removeVote(voterId);
+        }
+
+        /**
+         * Marks the votes of a poll read without its voters as pending. Until {@link #completeVotes}
+         * is called, replayed changes are queued, vote changes and saves wait, and readers are
+         * expected to check {@link #isLoaded()} first.
+         */
+        void markVotesPending() {
+            this.votes = null;
+            this.pendingVotes = new PendingVotes();
+        }
+
+        /**
+         * Installs the votes read in the background, then applies the changes replayed meanwhile
+         * in their original order.
+         *
+         * @param loaded the votes as stored; taken over by the poll
+         */
+        void completeVotes(VoteTable loaded) {
+            PendingVotes pending = pendingVotes;
+            if (pending == null) return;
+
+            synchronized (pending) {
+                for (PendingVotes.Change change : pending.changes) {
+                    if (change.ballot() < 0) {
+                        loaded.remove(change.voterId());
+                    } else if (mode.isValid(change.ballot(), options.size())) {
+                        loaded.put(change.voterId(), change.ballot());
+                    }
+                }
+                VoteTable.Snapshot snapshot = loaded.snapshot();
+
+                long stamp = votesLock.writeLock();
+                try {
+                    // Nothing was counted while pending, every change waited for this
+                    for (int i = 0; i < snapshot.size(); i++) {
+                        count(snapshot.ballot(i), 1);
+                    }
+                    votes = loaded;
+                    pendingVotes = null;
+                    // Results published while pending counted none of the votes
+                    results = null;
+                } finally {
+                    votesLock.unlockWrite(stamp);
+                }
+            }
+            pending.done.complete(null);
+        }
+
+        private boolean deferIfPending(UUID voterId, int ballot) {
+            PendingVotes pending = pendingVotes;
+            if (pending == null) return false;
+            synchronized (pending) {
+                if (pendingVotes != pending) return false;
+                pending.changes.add(new PendingVotes.Change(voterId, ballot));
+                // Dirty right away, so a save cannot skip the poll and drop the change with the journal
+                version.incrementAndGet();
+                return true;
+            }
+        }
+
+        /**
+         * Waits until the votes were read. Server threads check {@link #isLoaded()} before they
+         * reach this through one of the vote readers.
+         */
+        private void awaitVotes() {
+            PendingVotes pending = pendingVotes;
+            if (pending != null) {
+                pending.done.join();
+            }
+        }
+
+        /**
+         * Returns whether the votes of the poll were read. Only false for a short while after
+         * startup, while polls are loaded in the background.
+         */
+        public boolean isLoaded() {
+            return pendingVotes == null;
+        }
+
+        /**
+         * Restores a closed poll whose votes stay on disk. Only the per-option tallies, and the
+         * distinct rankings of a ranked poll, are kept.
+         *
+         * @param ballots the stored ballots
+         * @param voterCount the number of entries used in the array
+         */
+        void restoreUnloaded(int[] ballots, int voterCount) {
+            int counted = 0;
+            for (int i = 0; i < voterCount; i++) {
+                if (mode.isValid(ballots[i], options.size())) {
+                    count(ballots[i], 1);
+                    counted++;
+                }
+            }
+            this.unloadedVoterCount = counted;
+            this.votes = null;
+        }
+
+        // Map operations return each previous value exactly once, so the tallies always
+        // converge to the contents of the votes map, even under concurrent vote changes
+        private void putVote(long voterMost, long voterLeast, int ballot) {
+            long stamp = lockVotes();
+            try {
+                int previous = votes.put(voterMost, voterLeast, ballot);
+                count(ballot, 1);
+                if (previous >= 0) {
+                    count(previous, -1);
+                }
+                version.incrementAndGet();
+            } finally {
+                votesLock.unlockRead(stamp);
+            }
+        }
+
+        private boolean removeVote(UUID voterId) {
+            long stamp = lockVotes();
+            try {
+                int previous = votes.remove(voterId);
+                if (previous < 0) return false;
+                count(previous, -1);
+                version.incrementAndGet();
+                return true;
+            } finally {
+                votesLock.unlockRead(stamp);
+            }
+        }
+
+        private void count(int ballot, int delta) {
+            tallies.addAndGet(mode.countedOption(ballot), delta * mode.countedWeight(ballot));
+            if (rankedTally != null) {
+                rankedTally.add(ballot, delta);
+            }
+        }
+
+        /**
+         * Acquires the shared votes lock with the votes loaded. Votes are only mutated under the
+         * shared lock, so they can never change while {@link #unloadVotes()} holds the exclusive one.
+         */
+        private long lockVotes() {
+            while (true) {
+                ensureVotesLoaded();
+                long stamp = votesLock.readLock();
+                if (votes != null) return stamp;
+                // Unloaded again in between, try again
+                votesLock.unlockRead(stamp);
+            }
+        }
+
+        private void ensureVotesLoaded() {
+            awaitVotes();
+            if (votes != null) return;
+
+            boolean loaded = false;
+            long stamp = votesLock.writeLock();
+            try {
+                if (votes == null) {
+                    VoteTable loadedVotes = new VoteTable(unloadedVoterCount);
+                    readUnloadedVotes(loadedVotes::put);
+                    votes = loadedVotes;
+                    loaded = true;
+                }
+            } finally {
+                votesLock.unlockWrite(stamp);
+            }
+
+            // Outside the lock, the loader may unload other polls in response
+            if (loaded) {
+                voteLoader.onLoaded(this);
+            }
+        }
+
+        private void readUnloadedVotes(BiConsumer<UUID, Integer> consumer) {
+            if (voteLoader == null) {
+                throw new IllegalStateException("Votes of poll " + id + " are not loaded and no loader is set");
+            }
+            try {
+                voteLoader.loadVotes(id, consumer);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load votes of poll " + id, e);
+            }
+        }
+
+        /**
+         * Drops the voter map of a closed poll whose state is fully contained in its file.
+         * The tallies stay resident and the votes are reloaded on demand.
+         *
+         * @return true if the votes were unloaded
+         */
+        boolean unloadVotes() {
+            long stamp = votesLock.writeLock();
+            try {
+                VoteTable current = votes;
+                if (current == null || voteLoader == null || isActive() || !isPersisted()) {
+                    return false;
+                }
+                unloadedVoterCount = current.size();
+                votes = null;
+                return true;
+            } finally {
+                votesLock.unlockWrite(stamp);
+            }
+        }
+
+        void setVoteLoader(VoteLoader voteLoader) {
+            this.voteLoader = voteLoader;
+        }
+
+        long getVersion() {
+            return version.get();
+        }
+
+        /**
+         * Records that the state of the poll at the given version was written to storage.
+         */
+        void markPersisted(long persisted) {
+            if (persisted > persistedVersion) {
+                persistedVersion = persisted;
+            }
+        }
+
+        boolean isPersisted() {
+            return version.get() == persistedVersion;
+        }
+
+        /**
+         * Returns whether the voters can be read without waiting. False while the poll is loading,
+         * and for closed polls whose votes were unloaded; {@link #getResults()} works either way.
+         */
+        public boolean hasResidentVotes() {
+            return votes != null;
+        }
+
+        /**
+         * Reads unloaded votes back on the storage thread, for readers that must not wait for
+         * the disk. Does nothing if the votes are resident or already being read.
+         */
+        public void requestVotes() {
+            VoteLoader loader = voteLoader;
+            if (votes != null || pendingVotes != null || loader == null || !votesRequested.compareAndSet(false, true)) {
+                return;
+            }
+            boolean queued = loader.execute(() -> {
+                try {
+                    readVotesBack();
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Failed to read the votes of poll " + getDisplayId(), e);
+                } finally {
+                    votesRequested.set(false);
+                }
+            });
+            if (!queued) {
+                votesRequested.set(false);
+            }
+        }
+
+        /**
+         * Reads unloaded votes without holding the votes lock, so readers are never stuck behind
+         * the disk, and installs them unless the poll changed meanwhile.
+         */
+        private void readVotesBack() {
+            long readVersion = version.get();
+            if (votes != null) return;
+            VoteTable loadedVotes = new VoteTable(unloadedVoterCount);
+            readUnloadedVotes(loadedVotes::put);
+
+            boolean installed = false;
+            long stamp = votesLock.writeLock();
+            try {
+                // A changed version means the votes were loaded, changed and maybe unloaded again
+                if (votes == null && version.get() == readVersion) {
+                    votes = loadedVotes;
+                    installed = true;
+                }
+            } finally {
+                votesLock.unlockWrite(stamp);
+            }
+            if (installed) {
+                voteLoader.onLoaded(this);
+            }
         }
 
         public boolean hasVoted(Player player) {
-            return votes.containsKey(player.getUniqueId());
+            return hasVoted(player.getUniqueId());
+        }
+
+        /**
+         * Returns whether the given player voted. Waits while the poll is loading and reads
+         * unloaded votes on the calling thread; on a server thread, check
+         * {@link #hasResidentVotes()} first and {@link #requestVotes()} them if it returns false.
+         */
+        public boolean hasVoted(UUID voterId) {
+            long stamp = lockVotes();
+            try {
+                return votes.contains(voterId);
+            } finally {
+                votesLock.unlockRead(stamp);
+            }
         }
 
         public int getVoteCount(int optionIndex) {
-            return (int) votes.values().stream()
-                    .filter(option -> option == optionIndex)
-                    .count();
+            if (optionIndex < 0 || optionIndex >= tallies.length()) return 0;
+            return tallies.get(optionIndex);
+        }
+
+        /**
+         * Returns the number of voters.
+         */
+        public int getTotalVotes() {
+            VoteTable current = votes;
+            return current != null ? current.size() : unloadedVoterCount;
         }
 
         public String getShortId() {
-            return id.toString().substring(0, 8);
+            return shortId;
+        }
+
+        /**
+         * Returns the ID shown to players: the custom ID, or the short ID for polls without one.
+         */
+        public String getDisplayId() {
+            return customId != null ? customId : shortId;
         }
 
         public UUID getId() {
@@ -334,20 +1235,167 @@ public abstract class PollManager {
             return options;
         }
 
+        public VotingMode getMode() {
+            return mode;
+        }
+
+        /**
+         * Returns the current results. The same instance is returned until the poll changes, so
+         * calling this repeatedly is cheap and never copies the votes. Never waits for the votes:
+         * until the poll is {@linkplain #isLoaded() loaded} the results count none of them.
+         */
+        public PollResults getResults() {
+            PollResults current = results;
+            if (current != null && current.version() == version.get()) {
+                return current;
+            }
+
+            // The exclusive lock waits for vote changes in flight, so tallies and voter count agree
+            long stamp = votesLock.writeLock();
+            try {
+                long currentVersion = version.get();
+                current = results;
+                if (current != null && current.version() == currentVersion) {
+                    return current;
+                }
+                int[] counts = new int[tallies.length()];
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] = tallies.get(i);
+                }
+                // The runoff is only counted again if a ranking changed since the last results
+                RankedTally.Runoff runoff = rankedTally != null ? rankedTally.runoff() : null;
+                // A concurrent start or stop may already be visible; it bumps the version, so the
+                // next call republishes anyway
+                current = new PollResults(currentVersion, mode, counts, getTotalVotes(), state.get(), runoff);
+                results = current;
+                return current;
+            } finally {
+                votesLock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Returns a copy of the {@link Ballot} of every voter. Prefer {@link #getResults()} when only
+         * the counts are needed. Waits and reads like {@link #hasVoted(UUID)}.
+         */
         public Map<UUID, Integer> getVotes() {
-            return new HashMap<>(votes);
+            long stamp = lockVotes();
+            try {
+                Map<UUID, Integer> copy = new HashMap<>(votes.size() * 4 / 3 + 1);
+                votes.forEach(copy::put);
+                return copy;
+            } finally {
+                votesLock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Returns a primitive copy of the votes for serialization. Unloaded votes are read into
+         * the copy without making them resident again. Only called by the writer, which waits for
+         * votes still being read so the changes replayed meanwhile are not lost.
+         */
+        VoteTable.Snapshot votesSnapshot() {
+            awaitVotes();
+            VoteTable current = votes;
+            if (current != null) {
+                return current.snapshot();
+            }
+            VoteTable temporary = new VoteTable(unloadedVoterCount);
+            readUnloadedVotes(temporary::put);
+            return temporary.snapshot();
         }
 
+        /**
+         * Pre-sizes the vote storage before a known number of votes is restored.
+         */
+        void reserveVotes(int expectedVoters) {
+            long stamp = votesLock.writeLock();
+            try {
+                if (votes != null && votes.size() == 0) {
+                    votes = new VoteTable(expectedVoters);
+                }
+            } finally {
+                votesLock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Returns whether the poll accepts votes. A poll past its end time counts as inactive
+         * even before the expiry scheduler has closed it.
+         */
         public boolean isActive() {
-            return active;
+            return state.get().isRunning(System.currentTimeMillis());
         }
 
         public long getStartTime() {
-            return startTime;
+            return state.get().startTime();
         }
 
         public long getEndTime() {
-            return endTime;
+            return state.get().endTime();
+        }
+
+        /**
+         * Returns the lifecycle state of the poll as one consistent value.
+         */
+        public State getState() {
+            return state.get();
+        }
+
+        /**
+         * Immutable lifecycle state of a poll.
+         *
+         * @param active whether the poll was started and not stopped or expired yet
+         * @param startTime when the poll was last started, in milliseconds
+         * @param endTime when the poll closes, in milliseconds
+         */
+        public record State(boolean active, long startTime, long endTime) {
+            static final State CLOSED = new State(false, 0L, 0L);
+
+            public boolean isRunning(long now) {
+                return active && now < endTime;
+            }
         }
+
+        /**
+         * Changes replayed onto a poll whose votes are still being read.
+         */
+        private static final class PendingVotes {
+            private final List<Change> changes = new ArrayList<>();
+            private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+            // A ballot of -1 removes the vote
+            private record Change(UUID voterId, int ballot) {}
+        }
+    }
+
+    /**
+     * Reads the votes of a poll whose voter map is not resident.
+     */
+    public interface VoteLoader {
+
+        /**
+         * Streams the persisted votes of the given poll.
+         *
+         * @param pollId the poll to read the votes of
+         * @param consumer receives each voter and their ballot
+         * @throws IOException if the votes could not be read
+         */
+        void loadVotes(UUID pollId, BiConsumer<UUID, Integer> consumer) throws IOException;
+
+        /**
+         * Runs a read of unloaded votes that a reader requested without waiting for it.
+         *
+         * @param task the read to run off the calling thread
+         * @return false if the task was dropped because storage is shut down
+         */
+        boolean execute(Runnable task);
+
+        /**
+         * Called after the votes of a poll were made resident again.
+         *
+         * @param poll the poll whose votes were loaded
+         */
+        default void onLoaded(Poll poll) {}
     }
 }
\ No newline at end of file
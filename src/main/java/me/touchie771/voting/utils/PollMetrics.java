@@ -0,0 +1,239 @@
+package me.touchie771.voting.utils;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Runtime metrics of the voting subsystem.
+ * Counters and histograms are striped ({@link LongAdder}), so recording never contends between
+ * threads and costs a few nanoseconds. The values are shown by {@code /poll metrics} and can
+ * optionally be read over JMX.
+ */
+public class PollMetrics {
+
+    public static final LongAdder VOTES = new LongAdder();
+    public static final LongAdder UNVOTES = new LongAdder();
+    public static final LongAdder CREATES = new LongAdder();
+    public static final LongAdder REJECTED_VOTES = new LongAdder();
+    public static final LongAdder RATE_LIMITED = new LongAdder();
+    public static final LongAdder REMOTE_CHANGES = new LongAdder();
+
+    public static final LongAdder LOOKUPS_CUSTOM_ID = new LongAdder();
+    public static final LongAdder LOOKUPS_UUID = new LongAdder();
+    public static final LongAdder LOOKUPS_SHORT_ID = new LongAdder();
+    public static final LongAdder LOOKUPS_MISSED = new LongAdder();
+
+    /** Writing a full snapshot, or rewriting the database. */
+    public static final LatencyHistogram SAVES = new LatencyHistogram();
+    /** Appending a batch of changes to the journal or database. */
+    public static final LatencyHistogram FLUSHES = new LatencyHistogram();
+    /** Loading all polls on startup. */
+    public static final LatencyHistogram LOADS = new LatencyHistogram();
+
+    public static final AtomicLong LAST_SAVE_BYTES = new AtomicLong();
+    public static final LongAdder SAVED_BYTES = new LongAdder();
+
+    private static final Map<String, LatencyHistogram> commands = new ConcurrentHashMap<>();
+    private static final String JMX_NAME = "me.touchie771.voting:type=PollMetrics";
+    private static ObjectName registeredName;
+
+    /**
+     * Registers the JMX bean if enabled in the config.
+     */
+    public static void initialize(JavaPlugin plugin) {
+        if (!plugin.getConfig().getBoolean("metrics.jmx", false)) return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(JMX_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(new Jmx(), name);
+            registeredName = name;
+        } catch (JMException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to register the metrics JMX bean", e);
+        }
+    }
+
+    /**
+     * Unregisters the JMX bean. Called when the plugin is disabled.
+     */
+    public static void shutdown() {
+        if (registeredName == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException ignored) {
+            // Already gone
+        }
+        registeredName = null;
+    }
+
+    /**
+     * Records the size of a snapshot that was just written.
+     *
+     * @param bytes the size of the snapshot file
+     */
+    public static void recordSaveSize(long bytes) {
+        LAST_SAVE_BYTES.set(bytes);
+        SAVED_BYTES.add(bytes);
+    }
+
+    /**
+     * Returns the latency histogram of a subcommand.
+     *
+     * @param name the subcommand name
+     * @return the histogram, created on first use
+     */
+    public static LatencyHistogram command(String name) {
+        return commands.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Returns the latency histograms of all subcommands that ran at least once.
+     *
+     * @return the histograms by subcommand name
+     */
+    public static Map<String, LatencyHistogram> commands() {
+        return Map.copyOf(commands);
+    }
+
+    /**
+     * A latency histogram with power-of-two microsecond buckets.
+     * Percentiles are reported as the upper bound of the bucket they fall into, so they are
+     * accurate to within a factor of two, which is enough to tell a 50µs lookup from a 5ms save.
+     */
+    public static final class LatencyHistogram {
+        private static final int BUCKETS = 32;
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private LatencyHistogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Records the time elapsed since the given start.
+         *
+         * @param startNanos a value previously returned by {@link System#nanoTime()}
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public void record(long nanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+            // Bucket i holds values below 2^i microseconds
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+            buckets[bucket].increment();
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public double meanMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / (double) n / 1_000_000;
+        }
+
+        public double maxMillis() {
+            return maxNanos.get() / 1_000_000.0;
+        }
+
+        /**
+         * @param percentile the percentile, between 0 and 1
+         * @return the upper bound of the bucket holding the percentile, in milliseconds
+         */
+        public double percentileMillis(double percentile) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            if (total == 0) return 0;
+
+            long rank = (long) Math.ceil(percentile * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return (1L << i) / 1000.0;
+                }
+            }
+            return maxMillis();
+        }
+    }
+
+    /**
+     * The metrics as exposed over JMX.
+     */
+    public interface MetricsMXBean {
+        long getVotes();
+        long getUnvotes();
+        long getCreates();
+        long getRejectedVotes();
+        long getRateLimited();
+        long getRemoteChanges();
+        long getLookupsByCustomId();
+        long getLookupsByUuid();
+        long getLookupsByShortId();
+        long getLookupsMissed();
+        int getVoteQueueDepth();
+        int getPendingWrites();
+        long getSaveCount();
+        double getSaveMeanMillis();
+        double getSaveP99Millis();
+        double getSaveMaxMillis();
+        long getLastSaveBytes();
+        long getSavedBytes();
+        long getFlushCount();
+        double getFlushMeanMillis();
+        double getFlushP99Millis();
+        double getLoadMaxMillis();
+    }
+
+    private static final class Jmx implements MetricsMXBean {
+        @Override public long getVotes() { return VOTES.sum(); }
+        @Override public long getUnvotes() { return UNVOTES.sum(); }
+        @Override public long getCreates() { return CREATES.sum(); }
+        @Override public long getRejectedVotes() { return REJECTED_VOTES.sum(); }
+        @Override public long getRateLimited() { return RATE_LIMITED.sum(); }
+        @Override public long getRemoteChanges() { return REMOTE_CHANGES.sum(); }
+        @Override public long getLookupsByCustomId() { return LOOKUPS_CUSTOM_ID.sum(); }
+        @Override public long getLookupsByUuid() { return LOOKUPS_UUID.sum(); }
+        @Override public long getLookupsByShortId() { return LOOKUPS_SHORT_ID.sum(); }
+        @Override public long getLookupsMissed() { return LOOKUPS_MISSED.sum(); }
+        @Override public int getVoteQueueDepth() { return PollManager.voteQueueDepth(); }
+        @Override public int getPendingWrites() { return PollManager.pendingWrites(); }
+        @Override public long getSaveCount() { return SAVES.count(); }
+        @Override public double getSaveMeanMillis() { return SAVES.meanMillis(); }
+        @Override public double getSaveP99Millis() { return SAVES.percentileMillis(0.99); }
+        @Override public double getSaveMaxMillis() { return SAVES.maxMillis(); }
+        @Override public long getLastSaveBytes() { return LAST_SAVE_BYTES.get(); }
+        @Override public long getSavedBytes() { return SAVED_BYTES.sum(); }
+        @Override public long getFlushCount() { return FLUSHES.count(); }
+        @Override public double getFlushMeanMillis() { return FLUSHES.meanMillis(); }
+        @Override public double getFlushP99Millis() { return FLUSHES.percentileMillis(0.99); }
+        @Override public double getLoadMaxMillis() { return LOADS.maxMillis(); }
+    }
+}
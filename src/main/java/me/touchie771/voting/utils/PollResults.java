@@ -0,0 +1,116 @@
+package me.touchie771.voting.utils;
+
+/**
+ * An immutable view of the results of a poll at one version.
+ * A poll publishes a new instance only after it changed, so every reader between two changes
+ * shares the same object and none of them copies the votes. Obtain it from
+ * {@link PollManager.Poll#getResults()}.
+ */
+public final class PollResults {
+
+    private final long version;
+    private final VotingMode mode;
+    private final int[] tallies;
+    private final int totalVotes;
+    private final int voterCount;
+    private final PollManager.Poll.State state;
+    private final RankedTally.Runoff runoff;
+
+    PollResults(long version, VotingMode mode, int[] tallies, int voterCount, PollManager.Poll.State state,
+                RankedTally.Runoff runoff) {
+        this.version = version;
+        this.mode = mode;
+        this.tallies = tallies;
+        this.voterCount = voterCount;
+        this.state = state;
+        this.runoff = runoff;
+        int total = 0;
+        for (int tally : tallies) {
+            total += tally;
+        }
+        this.totalVotes = total;
+    }
+
+    /**
+     * Returns the version of the poll these results were taken at.
+     * Two results of the same poll with the same version are identical.
+     */
+    public long version() {
+        return version;
+    }
+
+    public VotingMode mode() {
+        return mode;
+    }
+
+    public int optionCount() {
+        return tallies.length;
+    }
+
+    /**
+     * Returns the votes of an option: the summed weights in weighted polls and the first
+     * preferences in ranked polls.
+     */
+    public int voteCount(int optionIndex) {
+        if (optionIndex < 0 || optionIndex >= tallies.length) return 0;
+        return tallies[optionIndex];
+    }
+
+    /**
+     * Returns the sum of the votes of all options.
+     */
+    public int totalVotes() {
+        return totalVotes;
+    }
+
+    public int voterCount() {
+        return voterCount;
+    }
+
+    public PollManager.Poll.State state() {
+        return state;
+    }
+
+    /**
+     * Returns the instant runoff of a ranked poll.
+     *
+     * @return the runoff, or null if the poll is not ranked
+     */
+    public RankedTally.Runoff runoff() {
+        return runoff;
+    }
+
+    /**
+     * Returns the option with the most votes, or the runoff winner of a ranked poll. Ties go to
+     * the option listed first.
+     *
+     * @return the option index, or -1 if nobody voted
+     */
+    public int leadingOption() {
+        if (runoff != null) return runoff.winner();
+        int leader = -1;
+        int leaderVotes = 0;
+        for (int i = 0; i < tallies.length; i++) {
+            if (tallies[i] > leaderVotes) {
+                leader = i;
+                leaderVotes = tallies[i];
+            }
+        }
+        return leader;
+    }
+
+    /**
+     * Returns the share of an option: of all votes, or of the ballots left in the final runoff
+     * round of a ranked poll.
+     *
+     * @return the share between 0 and 1
+     */
+    public double share(int optionIndex) {
+        if (runoff != null) {
+            RankedTally.Round last = runoff.finalRound();
+            int continuing = last.continuingVotes();
+            return continuing == 0 ? 0 : (double) last.voteCount(optionIndex) / continuing;
+        }
+        return totalVotes == 0 ? 0 : (double) voteCount(optionIndex) / totalVotes;
+    }
+}
@@ -1,82 +1,306 @@
 package me.touchie771.voting.utils;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 
+/**
+ * Reads and writes polls in the configured {@link PollFormat}, one file per poll in the "polls" folder.
+ * A save only rewrites the polls whose version moved past the one last written, so the cost of a
+ * save depends on how many polls changed, not on how many exist. Polls stored in another format,
+ * and snapshots of the older single-file layout, are migrated on load.
+ */
 public class PollSerializer {
-    private static final Gson GSON = new GsonBuilder()
-            .setPrettyPrinting()
-            .create();
-    
-    private static final Type POLL_LIST_TYPE = new TypeToken<List<PollData>>() {}.getType();
-    
-    private final JavaPlugin plugin;
-    private final File pollsFile;
-    
+
+    private static final String POLLS_FOLDER = "polls";
+    private static final List<PollFormat> FORMATS = List.of(new JsonPollFormat(true), new BinaryPollFormat());
+
+    private final Logger logger;
+    private final File dataFolder;
+    private final File pollsFolder;
+    private final PollFormat format;
+
     public PollSerializer(JavaPlugin plugin) {
-        this.plugin = plugin;
-        this.pollsFile = new File(plugin.getDataFolder(), "polls.json");
-        
-        if (!plugin.getDataFolder().exists()) {
-            if (!plugin.getDataFolder().mkdirs()) {
-                plugin.getLogger().warning("Failed to create plugin data folder!");
+        this(plugin.getDataFolder(), plugin.getLogger(), createFormat(plugin));
+    }
+
+    public PollSerializer(File dataFolder, Logger logger, PollFormat format) {
+        this.logger = logger;
+        this.dataFolder = dataFolder;
+        this.pollsFolder = new File(dataFolder, POLLS_FOLDER);
+        this.format = format;
+
+        if (!dataFolder.exists()) {
+            if (!dataFolder.mkdirs()) {
+                logger.warning("Failed to create plugin data folder!");
             }
         }
     }
-    
-    public void savePolls(List<PollManager.Poll> polls) {
-        try {
-            List<PollData> pollDataList = polls.stream()
-                    .map(PollData::fromPoll)
-                    .toList();
-            
-            try (FileWriter writer = new FileWriter(pollsFile)) {
-                GSON.toJson(pollDataList, writer);
+
+    private static PollFormat createFormat(JavaPlugin plugin) {
+        boolean prettyPrint = plugin.getConfig().getBoolean("storage.pretty-print", true);
+        String name = plugin.getConfig().getString("storage.format", "json");
+        return switch (name.toLowerCase()) {
+            case "binary" -> new BinaryPollFormat();
+            // sqlite only ends up here when the database could not be opened
+            case "json", "sqlite" -> new JsonPollFormat(prettyPrint);
+            default -> {
+                plugin.getLogger().warning("Unknown storage format '" + name + "', falling back to json");
+                yield new JsonPollFormat(prettyPrint);
+            }
+        };
+    }
+
+    /**
+     * Writes every poll that changed since it was last written to its own file. Each file is written
+     * to a temporary file first and atomically moved into place, so a crash mid-write never leaves
+     * a truncated poll behind. Unchanged polls are skipped without being encoded.
+     *
+     * @param polls the polls to save
+     * @return true if every changed poll was written successfully
+     */
+    public boolean savePolls(List<PollManager.Poll> polls) {
+        if (!pollsFolder.exists() && !pollsFolder.mkdirs()) {
+            logger.severe("Failed to create " + pollsFolder);
+            return false;
+        }
+
+        boolean success = true;
+        int written = 0;
+        long bytes = 0;
+        for (PollManager.Poll poll : polls) {
+            if (poll.isPersisted()) continue;
+            // Captured before writing, so changes made during the write keep the poll dirty
+            long version = poll.getVersion();
+            try {
+                bytes += writePoll(poll);
+                poll.markPersisted(version);
+                written++;
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Failed to save poll " + poll.getId(), e);
+                success = false;
             }
-            
-            plugin.getLogger().info("Saved " + polls.size() + " polls to file");
-        } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to save polls to file", e);
         }
+
+        if (written > 0) {
+            PollMetrics.recordSaveSize(bytes);
+            logger.info("Saved " + written + " changed polls to file");
+        }
+        return success;
+    }
+
+    private long writePoll(PollManager.Poll poll) throws IOException {
+        File pollFile = pollFile(poll.getId());
+        File tempFile = new File(pollsFolder, pollFile.getName() + ".tmp");
+        format.write(tempFile, List.of(poll));
+        long size = tempFile.length();
+        try {
+            Files.move(tempFile.toPath(), pollFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), pollFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return size;
+    }
+
+    private File pollFile(UUID pollId) {
+        return new File(pollsFolder, pollId + format.extension());
+    }
+
+    /**
+     * Returns whether any polls were saved, in the current or in the older single-file layout.
+     *
+     * @return true if {@link #loadPolls} would find polls to load
+     */
+    public boolean hasStoredPolls() {
+        if (pollsFolder.isDirectory()) return true;
+        for (PollFormat source : FORMATS) {
+            if (new File(dataFolder, source.fileName()).exists()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Streams every saved poll to the given consumer, one poll at a time.
+     * Polls saved in another format are rewritten in the configured one.
+     *
+     * @param consumer receives each loaded poll
+     * @param lazyClosedPolls whether closed polls should be loaded without their voters,
+     *                        only honoured if {@link #supportsLazyVotes()}
+     * @return the number of polls loaded
+     */
+    public int loadPolls(Consumer<PollManager.Poll> consumer, boolean lazyClosedPolls) {
+        return loadPolls(consumer, lazyClosedPolls, false);
+    }
+
+    /**
+     * Streams every saved poll to the given consumer without decoding its voters. Polls are returned
+     * with their votes pending, to be read with {@link #loadVotes}. Polls that have to be migrated
+     * or converted are read in full.
+     *
+     * @param consumer receives each loaded poll
+     * @param lazyClosedPolls whether closed polls should be loaded with only their tallies instead,
+     *                        only honoured if {@link #supportsLazyVotes()}
+     * @return the number of polls loaded
+     */
+    public int loadPollMetadata(Consumer<PollManager.Poll> consumer, boolean lazyClosedPolls) {
+        return loadPolls(consumer, lazyClosedPolls, true);
     }
-    
-    public List<PollData> loadPolls() {
-        if (!pollsFile.exists()) {
-            plugin.getLogger().info("No polls file found, starting with empty poll list");
-            return List.of();
+
+    private int loadPolls(Consumer<PollManager.Poll> consumer, boolean lazyClosedPolls, boolean metadataOnly) {
+        File[] files = pollsFolder.listFiles();
+        if (files == null) {
+            for (PollFormat source : FORMATS) {
+                File sourceFile = new File(dataFolder, source.fileName());
+                if (sourceFile.exists()) {
+                    return migrate(source, sourceFile, consumer);
+                }
+            }
+            logger.info("No polls file found, starting with empty poll list");
+            return 0;
         }
-        
-        try (FileReader reader = new FileReader(pollsFile)) {
-            List<PollData> pollDataList = GSON.fromJson(reader, POLL_LIST_TYPE);
-            if (pollDataList == null) {
-                return List.of();
+        Arrays.sort(files);
+
+        int count = 0;
+        List<PollManager.Poll> converted = new ArrayList<>();
+        List<File> convertedFiles = new ArrayList<>();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(".tmp")) {
+                // Left behind by a write that never completed, the previous file is still intact
+                deleteQuietly(file);
+                continue;
             }
-            
-            plugin.getLogger().info("Loaded " + pollDataList.size() + " polls from file");
-            return pollDataList;
+            PollFormat source = formatOf(name);
+            if (source == null) continue;
+
+            boolean current = source.extension().equals(format.extension());
+            try {
+                List<PollManager.Poll> loaded = new ArrayList<>(1);
+                boolean lazy = current && lazyClosedPolls && supportsLazyVotes();
+                if (current && metadataOnly) {
+                    source.readMetadata(file, loaded::add, lazy);
+                } else {
+                    source.read(file, loaded::add, lazy);
+                }
+                for (PollManager.Poll poll : loaded) {
+                    if (current) {
+                        // Exactly what the file contains
+                        poll.markPersisted(poll.getVersion());
+                    } else {
+                        converted.add(poll);
+                    }
+                    consumer.accept(poll);
+                    count++;
+                }
+                if (!current) {
+                    convertedFiles.add(file);
+                }
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Failed to load poll from " + name, e);
+            }
+        }
+
+        if (!converted.isEmpty() && savePolls(converted)) {
+            convertedFiles.forEach(PollSerializer::deleteQuietly);
+            logger.info("Converted " + converted.size() + " polls to " + format.extension());
+        }
+        logger.info("Loaded " + count + " polls from file");
+        return count;
+    }
+
+    private static PollFormat formatOf(String fileName) {
+        for (PollFormat candidate : FORMATS) {
+            if (fileName.endsWith(candidate.extension())) return candidate;
+        }
+        return null;
+    }
+
+    private static void deleteQuietly(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException ignored) {
+            // Retried on the next load
+        }
+    }
+
+    /**
+     * Loads a snapshot written in the older single-file layout and splits it into one file per poll.
+     * The old file is kept with a ".migrated" suffix.
+     */
+    private int migrate(PollFormat source, File sourceFile, Consumer<PollManager.Poll> consumer) {
+        List<PollManager.Poll> migrated = new ArrayList<>();
+        try {
+            source.read(sourceFile, poll -> {
+                consumer.accept(poll);
+                migrated.add(poll);
+            }, false);
         } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to load polls from file", e);
-            return List.of();
+            logger.log(Level.SEVERE, "Failed to read " + sourceFile.getName() + " for migration", e);
+            return migrated.size();
+        }
+
+        if (savePolls(migrated)) {
+            File backup = new File(dataFolder, sourceFile.getName() + ".migrated");
+            try {
+                Files.move(sourceFile.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to rename " + sourceFile.getName() + " after migration", e);
+            }
+            logger.info("Migrated " + migrated.size() + " polls from " + sourceFile.getName() + " to the "
+                    + POLLS_FOLDER + " folder");
+        }
+        return migrated.size();
+    }
+
+    /**
+     * Returns whether the configured format can load the votes of single polls on demand.
+     *
+     * @return true if closed polls can be kept with only their tallies resident
+     */
+    public boolean supportsLazyVotes() {
+        return format instanceof BinaryPollFormat;
+    }
+
+    /**
+     * Reads the votes of a single poll from its file.
+     *
+     * @param pollId the poll to read the votes of
+     * @param consumer receives each voter and their ballot
+     * @throws IOException if the file could not be read or does not contain the poll
+     */
+    public void loadVotes(UUID pollId, BiConsumer<UUID, Integer> consumer) throws IOException {
+        PollFormat.VoteReader reader = format.openVoteReader(pollFile(pollId));
+        if (reader == null) {
+            throw new IOException("Storage format does not support loading single polls");
+        }
+        if (!reader.readVotes(pollId, consumer)) {
+            throw new IOException("Poll " + pollId + " is missing from its file");
         }
     }
 
     public record PollData(UUID id, String customId, String name, long duration, UUID creatorId, String creatorName,
                            List<String> options, Map<UUID, Integer> votes, boolean active, long startTime,
-                           long endTime) {
+                           long endTime, VotingMode mode) {
 
+        /**
+         * Captures the metadata and state of a poll. The votes are left out; storage formats stream
+         * them from the poll directly instead of copying them into a map first.
+         */
         public static PollData fromPoll(PollManager.Poll poll) {
+            PollManager.Poll.State state = poll.getState();
             return new PollData(
                     poll.getId(),
                     poll.getCustomId(),
@@ -85,10 +309,11 @@ public class PollSerializer {
                     poll.getCreatorId(),
                     poll.getCreatorName(),
                     poll.getOptions(),
-                    poll.getVotes(),
-                    poll.isActive(),
-                    poll.getStartTime(),
-                    poll.getEndTime()
+                    null,
+                    state.isRunning(System.currentTimeMillis()),
+                    state.startTime(),
+                    state.endTime(),
+                    poll.getMode()
             );
         }
 
@@ -96,4 +321,4 @@ public class PollSerializer {
             return new PollManager.Poll(this);
         }
     }
-}
\ No newline at end of file
+}
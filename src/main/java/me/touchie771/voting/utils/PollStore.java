@@ -0,0 +1,112 @@
+package me.touchie771.voting.utils;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Storage backend for polls.
+ * A store loads every poll on startup and persists changes as {@link PollJournal.Event}s afterwards,
+ * so {@link PollManager} never needs to know how or where polls are kept.
+ */
+public interface PollStore {
+
+    /**
+     * Loads every stored poll. Called once on startup, before any change is recorded.
+     * To keep startup fast, polls may be returned with their votes pending
+     * ({@link PollManager.Poll#isLoaded()} is false). Those are read afterwards in the background
+     * through {@link #loadVotes}.
+     *
+     * @param pollConsumer receives each loaded poll
+     * @param eventConsumer receives changes stored on top of the loaded polls, in order
+     * @param lazyClosedPolls whether closed polls should be loaded without their voters,
+     *                        only honoured if {@link #supportsLazyVotes()}
+     */
+    void load(Consumer<PollManager.Poll> pollConsumer, Consumer<PollJournal.Event> eventConsumer,
+              boolean lazyClosedPolls);
+
+    /**
+     * Queues a change to be persisted in the background.
+     *
+     * @param event the change
+     */
+    void record(PollJournal.Event event);
+
+    /**
+     * Schedules a background flush of the queued changes.
+     */
+    void requestFlush();
+
+    /**
+     * Persists all queued changes on the calling thread.
+     */
+    void flush();
+
+    /**
+     * Persists all queued changes and releases the store. Called when the plugin is disabled.
+     */
+    void shutdown();
+
+    /**
+     * Returns the number of recorded changes that were not persisted yet.
+     *
+     * @return the number of queued changes
+     */
+    int pendingChanges();
+
+    /**
+     * Runs a task on the storage thread, so reads it does never wait behind the server.
+     *
+     * @param task the task to run
+     * @return false if the store is shut down and the task was dropped
+     */
+    boolean execute(Runnable task);
+
+    /**
+     * Returns whether the votes of single polls can be loaded on demand.
+     *
+     * @return true if closed polls can be kept with only their tallies resident
+     */
+    default boolean supportsLazyVotes() {
+        return false;
+    }
+
+    /**
+     * Reads the votes of a single poll from storage. May be called from several threads at once.
+     *
+     * @param pollId the poll to read the votes of
+     * @param consumer receives each voter and their ballot
+     * @throws IOException if the votes could not be read
+     */
+    default void loadVotes(UUID pollId, BiConsumer<UUID, Integer> consumer) throws IOException {
+        throw new IOException("Storage backend does not support loading single polls");
+    }
+
+    /**
+     * Creates the store configured by {@code storage.format}. If the SQLite database cannot be
+     * opened, the polls file is used instead.
+     *
+     * @param plugin the plugin whose config and data folder are used
+     * @param snapshot supplies every poll when the full state has to be written
+     * @param afterCompaction called on the writer thread after the full state was written
+     * @return the store
+     */
+    static PollStore create(JavaPlugin plugin, Supplier<List<PollManager.Poll>> snapshot, Runnable afterCompaction) {
+        String format = plugin.getConfig().getString("storage.format", "json");
+        if (format.equalsIgnoreCase("sqlite")) {
+            try {
+                return new SqlitePollStore(plugin, snapshot, afterCompaction);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to open the poll database, falling back to json", e);
+            }
+        }
+        return new FilePollStore(plugin, snapshot, afterCompaction);
+    }
+}
@@ -0,0 +1,349 @@
+package me.touchie771.voting.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Replicates poll changes between servers that share a proxy.
+ * Local changes are stamped with a hybrid logical clock and sent to the other nodes in batches
+ * through a {@link Transport}. Received changes are applied last-writer-wins: a vote or unvote only
+ * replaces the current vote of that voter if its stamp is newer, and a start or stop only replaces
+ * the current state of the poll if its stamp is newer. Every node therefore converges to the same
+ * votes no matter in which order the batches arrive.
+ * <p>
+ * The stamps of the votes of a poll are dropped once the poll has been closed for a while, when
+ * no change made while it was open can still be on its way. From then on the votes of the poll
+ * are final: vote changes that still arrive are rejected, as they can no longer be ordered.
+ */
+public class PollSync {
+
+    private static final Gson GSON = new Gson();
+    // Low bits of a stamp count events within the same millisecond
+    private static final int LOGICAL_BITS = 16;
+    // How long the voter stamps of a closed poll are kept for changes still in flight
+    static final long CLOSED_POLL_RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final UUID nodeId = UUID.randomUUID();
+    private final Transport transport;
+    private final Logger logger;
+    private final Consumer<PollJournal.Event> applier;
+    private final Executor applyExecutor;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final AtomicLong clock = new AtomicLong();
+    // Poll ID to the stamp of the last change to each voter of that poll
+    private final Map<UUID, Map<UUID, Stamp>> voterStamps = new ConcurrentHashMap<>();
+    private final Map<UUID, Stamp> pollStamps = new ConcurrentHashMap<>();
+    // Poll ID to the time the poll was closed, until it is started again
+    private final Map<UUID, Long> closedPolls = new ConcurrentHashMap<>();
+    // Closed polls whose voter stamps were dropped, until they are started again
+    private final Set<UUID> prunedPolls = ConcurrentHashMap.newKeySet();
+    private final Queue<Change> outgoing = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger outgoingCount = new AtomicInteger();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Creates the replication layer. Nothing is sent or received before {@link #start()}.
+     *
+     * @param transport the bus connecting the nodes
+     * @param logger the logger used to report failures
+     * @param applier applies a received change that won against the local state
+     * @param applyExecutor runs the application of each received batch, must not reorder batches
+     * @param flushIntervalMillis the maximum delay between a local change and its broadcast
+     * @param batchSize the number of local changes that triggers a broadcast before the interval elapses
+     */
+    public PollSync(Transport transport, Logger logger, Consumer<PollJournal.Event> applier, Executor applyExecutor,
+                    long flushIntervalMillis, int batchSize) {
+        this.transport = transport;
+        this.logger = logger;
+        this.applier = applier;
+        this.applyExecutor = applyExecutor;
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+        this.batchSize = Math.max(1, batchSize);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Voting-PollSync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Connects to the transport and starts broadcasting local changes.
+     */
+    public void start() {
+        transport.start(this::receive);
+        executor.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a local change for broadcast. Must be called after the change was applied.
+     *
+     * @param event the change
+     */
+    public void publish(PollJournal.Event event) {
+        Stamp stamp = new Stamp(tick(), nodeId);
+        advance(event, stamp);
+        outgoing.add(new Change(stamp.time(), event));
+        if (outgoingCount.incrementAndGet() >= batchSize && flushQueued.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    flushQueued.set(false);
+                    flushSafely();
+                });
+            } catch (RejectedExecutionException e) {
+                flushQueued.set(false);
+            }
+        }
+    }
+
+    /**
+     * Drops everything kept about a poll that no longer exists.
+     *
+     * @param pollId the removed poll
+     */
+    public void forget(UUID pollId) {
+        voterStamps.remove(pollId);
+        pollStamps.remove(pollId);
+        closedPolls.remove(pollId);
+        prunedPolls.remove(pollId);
+    }
+
+    /**
+     * Broadcasts the remaining changes and disconnects from the transport.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("Poll sync did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushSafely();
+        transport.close();
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+            pruneClosedPolls(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Failed to broadcast poll changes", e);
+        }
+    }
+
+    /**
+     * Broadcasts the queued local changes.
+     */
+    synchronized void flush() {
+        List<byte[]> changes = new ArrayList<>();
+        Change change;
+        while ((change = outgoing.poll()) != null) {
+            outgoingCount.decrementAndGet();
+            changes.add(GSON.toJson(change).getBytes(StandardCharsets.UTF_8));
+        }
+        if (changes.isEmpty()) return;
+
+        // Pack as many changes into each message as the transport allows
+        byte[] header = ("{\"origin\":\"" + nodeId + "\",\"changes\":[").getBytes(StandardCharsets.UTF_8);
+        int limit = transport.maxMessageSize() - header.length - 2;
+        ByteArrayOutputStream message = new ByteArrayOutputStream();
+        int count = 0;
+        for (byte[] encoded : changes) {
+            if (encoded.length > limit) {
+                logger.warning("Poll change too large to broadcast (" + encoded.length + " bytes)");
+                continue;
+            }
+            if (count > 0 && message.size() + encoded.length + 1 > limit) {
+                send(header, message);
+                message.reset();
+                count = 0;
+            }
+            if (count > 0) message.write(',');
+            message.writeBytes(encoded);
+            count++;
+        }
+        if (count > 0) {
+            send(header, message);
+        }
+    }
+
+    private void send(byte[] header, ByteArrayOutputStream changes) {
+        ByteArrayOutputStream message = new ByteArrayOutputStream(header.length + changes.size() + 2);
+        message.writeBytes(header);
+        message.writeBytes(changes.toByteArray());
+        message.write(']');
+        message.write('}');
+        transport.send(message.toByteArray());
+    }
+
+    private void receive(byte[] message) {
+        Batch batch;
+        try {
+            batch = GSON.fromJson(new String(message, StandardCharsets.UTF_8), Batch.class);
+        } catch (JsonParseException e) {
+            logger.warning("Ignoring malformed poll sync message: " + e.getMessage());
+            return;
+        }
+        if (batch == null || batch.changes() == null || nodeId.equals(batch.origin())) return;
+
+        try {
+            applyExecutor.execute(() -> apply(batch));
+        } catch (RejectedExecutionException e) {
+            logger.warning("Dropping " + batch.changes().size() + " poll changes received during shutdown");
+        }
+    }
+
+    private void apply(Batch batch) {
+        for (Change change : batch.changes()) {
+            if (change == null || change.event() == null || change.event().type() == null) continue;
+            observe(change.stamp());
+            if (advance(change.event(), new Stamp(change.stamp(), batch.origin()))) {
+                applier.accept(change.event());
+            }
+        }
+    }
+
+    /**
+     * Records the stamp of a change if it is newer than the last change to the same voter or poll.
+     *
+     * @return true if the change wins and should be applied
+     */
+    private boolean advance(PollJournal.Event event, Stamp stamp) {
+        return switch (event.type()) {
+            // Without the stamps of a pruned poll a late change cannot be ordered, so the votes stay final
+            case VOTE, UNVOTE -> !prunedPolls.contains(event.pollId()) && advance(
+                    voterStamps.computeIfAbsent(event.pollId(), id -> new ConcurrentHashMap<>()), event.voterId(), stamp);
+            case START -> {
+                boolean newer = advance(pollStamps, event.pollId(), stamp);
+                if (newer) {
+                    closedPolls.remove(event.pollId());
+                    prunedPolls.remove(event.pollId());
+                }
+                yield newer;
+            }
+            case STOP -> {
+                boolean newer = advance(pollStamps, event.pollId(), stamp);
+                if (newer) closedPolls.put(event.pollId(), System.currentTimeMillis());
+                yield newer;
+            }
+            // Creating a poll is idempotent and never conflicts with later changes
+            case CREATE -> true;
+        };
+    }
+
+    /**
+     * Drops the voter stamps of polls that were closed longer than the retention ago. Vote changes
+     * to those polls are rejected from then on; a stamp recorded while the poll was being pruned
+     * is dropped on the next call.
+     *
+     * @param now the current time in milliseconds
+     */
+    void pruneClosedPolls(long now) {
+        closedPolls.forEach((pollId, closedAt) -> {
+            if (now - closedAt >= CLOSED_POLL_RETENTION_MILLIS) {
+                // Marked first, so no new stamps are recorded once the old ones are gone
+                prunedPolls.add(pollId);
+                voterStamps.remove(pollId);
+            }
+        });
+    }
+
+    /**
+     * Returns the number of voters whose last change is remembered, across all polls.
+     */
+    int trackedVoters() {
+        return voterStamps.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private static <K> boolean advance(Map<K, Stamp> stamps, K key, Stamp stamp) {
+        boolean[] newer = {false};
+        stamps.compute(key, (k, current) -> {
+            if (current == null || stamp.isAfter(current)) {
+                newer[0] = true;
+                return stamp;
+            }
+            return current;
+        });
+        return newer[0];
+    }
+
+    private long tick() {
+        long physical = System.currentTimeMillis() << LOGICAL_BITS;
+        return clock.updateAndGet(last -> Math.max(last + 1, physical));
+    }
+
+    private void observe(long remote) {
+        clock.accumulateAndGet(remote, Math::max);
+    }
+
+    /**
+     * The bus that carries batches of changes between nodes.
+     * Implementations deliver each message to every other node, in the order sent by each node.
+     */
+    public interface Transport {
+
+        /**
+         * Connects to the bus.
+         *
+         * @param receiver receives every message sent by another node
+         */
+        void start(Consumer<byte[]> receiver);
+
+        /**
+         * Sends a message to every other node. Must not block on the network.
+         *
+         * @param message the encoded batch of changes
+         */
+        void send(byte[] message);
+
+        /**
+         * Returns the largest message the transport can carry.
+         *
+         * @return the maximum message size in bytes
+         */
+        default int maxMessageSize() {
+            return Integer.MAX_VALUE;
+        }
+
+        /**
+         * Disconnects from the bus.
+         */
+        void close();
+    }
+
+    private record Stamp(long time, UUID node) {
+        boolean isAfter(Stamp other) {
+            return time != other.time ? time > other.time : node.compareTo(other.node) > 0;
+        }
+    }
+
+    private record Change(long stamp, PollJournal.Event event) {}
+
+    private record Batch(UUID origin, List<Change> changes) {}
+}
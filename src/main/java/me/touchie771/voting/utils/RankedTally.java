@@ -0,0 +1,188 @@
+package me.touchie771.voting.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Instant-runoff count of a ranked poll.
+ * <p>
+ * Voters who rank the same options in the same order cast the same ballot, so the poll keeps how
+ * many voters cast each distinct ballot, updated with every vote, instead of the ballots themselves.
+ * A runoff then works through the distinct ballots only; its cost depends on how many orders were
+ * ranked, not on how many voters ranked them. The last runoff is kept until a ballot changes.
+ */
+public final class RankedTally {
+
+    private final int optionCount;
+    private final Map<Integer, AtomicInteger> ballotCounts = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+    private Runoff runoff;
+    private long runoffChanges = -1;
+
+    RankedTally(int optionCount) {
+        this.optionCount = optionCount;
+    }
+
+    /**
+     * Counts a ballot in or out. Safe to call concurrently.
+     *
+     * @param ballot a valid ranking
+     * @param delta 1 to count the ballot, -1 to remove it
+     */
+    void add(int ballot, int delta) {
+        ballotCounts.computeIfAbsent(ballot, b -> new AtomicInteger()).addAndGet(delta);
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Returns the runoff of the current ballots, counting it again only if a ballot changed since
+     * the last call. The caller must make sure no ballot changes meanwhile.
+     */
+    Runoff runoff() {
+        long current = changes.get();
+        if (runoff == null || current != runoffChanges) {
+            // No concurrent add can revive an entry here
+            ballotCounts.values().removeIf(count -> count.get() <= 0);
+            int[] ballots = new int[ballotCounts.size()];
+            int[] counts = new int[ballots.length];
+            int distinct = 0;
+            for (Map.Entry<Integer, AtomicInteger> entry : ballotCounts.entrySet()) {
+                ballots[distinct] = entry.getKey();
+                counts[distinct++] = entry.getValue().get();
+            }
+            runoff = count(ballots, counts, distinct, optionCount);
+            runoffChanges = current;
+        }
+        return runoff;
+    }
+
+    /**
+     * Runs an instant runoff. Each round gives every ballot to its most preferred option that is
+     * still in the race. An option with more than half of those ballots wins; otherwise the option
+     * with the fewest is eliminated, ties going against the option listed last.
+     *
+     * @param ballots the distinct rankings
+     * @param counts how many voters cast each of them
+     * @param distinct the number of entries used in both arrays
+     * @param optionCount the number of options of the poll
+     */
+    static Runoff count(int[] ballots, int[] counts, int distinct, int optionCount) {
+        boolean[] eliminated = new boolean[optionCount];
+        List<Round> rounds = new ArrayList<>();
+        while (true) {
+            int[] totals = new int[optionCount];
+            int exhausted = 0;
+            for (int i = 0; i < distinct; i++) {
+                int choice = firstRemaining(ballots[i], eliminated);
+                if (choice < 0) {
+                    exhausted += counts[i];
+                } else {
+                    totals[choice] += counts[i];
+                }
+            }
+
+            int continuing = 0;
+            int leader = -1;
+            int last = -1;
+            for (int option = 0; option < optionCount; option++) {
+                if (eliminated[option]) continue;
+                continuing += totals[option];
+                if (leader < 0 || totals[option] > totals[leader]) {
+                    leader = option;
+                }
+                if (last < 0 || totals[option] <= totals[last]) {
+                    last = option;
+                }
+            }
+
+            if (continuing == 0) {
+                rounds.add(new Round(totals, exhausted, -1));
+                return new Runoff(rounds, -1);
+            }
+            if (2L * totals[leader] > continuing) {
+                rounds.add(new Round(totals, exhausted, -1));
+                return new Runoff(rounds, leader);
+            }
+            rounds.add(new Round(totals, exhausted, last));
+            eliminated[last] = true;
+        }
+    }
+
+    private static int firstRemaining(int ballot, boolean[] eliminated) {
+        for (int rank = 0; rank < Ballot.MAX_PREFERENCES; rank++) {
+            int option = Ballot.preference(ballot, rank);
+            if (option < 0) return -1;
+            if (!eliminated[option]) return option;
+        }
+        return -1;
+    }
+
+    /**
+     * The rounds of an instant runoff.
+     *
+     * @param rounds the rounds in the order they were counted
+     * @param winner the winning option index, or -1 if nobody voted
+     */
+    public record Runoff(List<Round> rounds, int winner) {
+
+        public Runoff {
+            rounds = List.copyOf(rounds);
+        }
+
+        public Round finalRound() {
+            return rounds.get(rounds.size() - 1);
+        }
+    }
+
+    /**
+     * One round of an instant runoff.
+     */
+    public static final class Round {
+        private final int[] totals;
+        private final int exhausted;
+        private final int eliminated;
+
+        Round(int[] totals, int exhausted, int eliminated) {
+            this.totals = totals;
+            this.exhausted = exhausted;
+            this.eliminated = eliminated;
+        }
+
+        /**
+         * Returns the ballots counted for an option in this round; 0 once it was eliminated.
+         */
+        public int voteCount(int optionIndex) {
+            if (optionIndex < 0 || optionIndex >= totals.length) return 0;
+            return totals[optionIndex];
+        }
+
+        /**
+         * Returns the ballots still in the race, i.e. those ranking an option not yet eliminated.
+         */
+        public int continuingVotes() {
+            int continuing = 0;
+            for (int total : totals) {
+                continuing += total;
+            }
+            return continuing;
+        }
+
+        /**
+         * Returns the ballots whose ranked options were all eliminated.
+         */
+        public int exhaustedVotes() {
+            return exhausted;
+        }
+
+        /**
+         * Returns the option eliminated after this round, or -1 for the final round.
+         */
+        public int eliminatedOption() {
+            return eliminated;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package me.touchie771.voting.utils;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-player token bucket.
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again, so
+ * taking a token is one compare-and-set and never blocks. Buckets that have filled up again carry
+ * no state and are dropped once more than {@code maxTrackedPlayers} are tracked, which keeps the
+ * map bounded by the players that are actually being limited.
+ */
+public class RateLimiter {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final int maxTrackedPlayers;
+    private final Map<UUID, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    /**
+     * @param capacity the number of tokens a full bucket holds, i.e. the allowed burst
+     * @param tokensPerSecond the rate at which tokens are refilled
+     * @param maxTrackedPlayers the number of buckets above which full buckets are dropped
+     */
+    public RateLimiter(int capacity, double tokensPerSecond, int maxTrackedPlayers) {
+        this.nanosPerToken = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond));
+        this.burstNanos = nanosPerToken * Math.max(1, capacity);
+        this.maxTrackedPlayers = Math.max(1, maxTrackedPlayers);
+    }
+
+    /**
+     * Creates a limiter for every subcommand configured in the given section, e.g.
+     * {@code vote: {capacity: 5, refill-per-second: 1.0}}. Entries with a capacity or rate of zero
+     * are left out, which disables limiting for that subcommand.
+     *
+     * @param section the {@code rate-limits} section, may be null
+     * @return the limiters by subcommand name
+     */
+    public static Map<String, RateLimiter> fromConfig(ConfigurationSection section) {
+        Map<String, RateLimiter> limiters = new HashMap<>();
+        if (section == null) return limiters;
+
+        int maxTrackedPlayers = section.getInt("max-tracked-players", 10000);
+        for (String subcommand : section.getKeys(false)) {
+            ConfigurationSection limit = section.getConfigurationSection(subcommand);
+            if (limit == null) continue;
+            int capacity = limit.getInt("capacity", 0);
+            double rate = limit.getDouble("refill-per-second", 0);
+            if (capacity > 0 && rate > 0) {
+                limiters.put(subcommand.toLowerCase(), new RateLimiter(capacity, rate, maxTrackedPlayers));
+            }
+        }
+        return limiters;
+    }
+
+    /**
+     * Takes a token from the player's bucket if one is available.
+     *
+     * @param playerId the player
+     * @return 0 if a token was taken, otherwise the milliseconds until the next one is available
+     */
+    public long tryAcquire(UUID playerId) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(playerId);
+        if (bucket == null) {
+            sweepIfFull(now);
+            bucket = buckets.computeIfAbsent(playerId, id -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long fullAt = bucket.get();
+            // Taking a token moves the time the bucket is full again one token further out
+            long next = Math.max(fullAt, now) + nanosPerToken;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(excess));
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops the buckets that filled up again. A player whose bucket is dropped while they take a
+     * token gets at most that one token back.
+     */
+    private void sweepIfFull(long now) {
+        if (buckets.size() < maxTrackedPlayers || !sweeping.compareAndSet(false, true)) return;
+        try {
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
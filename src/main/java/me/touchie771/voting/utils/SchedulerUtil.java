@@ -0,0 +1,41 @@
+package me.touchie771.voting.utils;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Utility class for running tasks on the right thread, on Paper as well as on Folia.
+ * Poll lifecycle changes (create, start, stop and expiry) all run on the global region thread,
+ * so they are applied in a single order. Anything touching a player runs on that player's own
+ * scheduler, which follows the player across regions.
+ */
+public class SchedulerUtil {
+
+    private static JavaPlugin plugin;
+
+    public static void initialize(JavaPlugin plugin) {
+        SchedulerUtil.plugin = plugin;
+    }
+
+    /**
+     * Runs the task on the global region thread, on the next tick at the latest.
+     *
+     * @param task the task to run
+     */
+    public static void runGlobal(Runnable task) {
+        plugin.getServer().getGlobalRegionScheduler().execute(plugin, task);
+    }
+
+    /**
+     * Runs the task on the thread that owns the given player. The task is dropped if the player
+     * left in the meantime or the plugin is being disabled.
+     *
+     * @param player the player the task belongs to
+     * @param task the task to run
+     */
+    public static void runForPlayer(Player player, Runnable task) {
+        JavaPlugin owner = plugin;
+        if (owner == null || !owner.isEnabled()) return;
+        player.getScheduler().run(owner, scheduledTask -> task.run(), null);
+    }
+}
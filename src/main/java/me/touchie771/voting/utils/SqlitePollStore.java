@@ -0,0 +1,456 @@
+package me.touchie771.voting.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores polls in an embedded SQLite database, using the driver that ships with the server.
+ * Every change is written as a single row update, so a vote costs one indexed insert instead of
+ * a journal line that later has to be folded into a rewrite of every poll. On first use, polls
+ * from an existing polls file and journal are imported and the files are kept with a ".migrated" suffix.
+ */
+public class SqlitePollStore implements PollStore, AsyncPollWriter.Target {
+
+    private static final Gson GSON = new Gson();
+    private static final Type OPTIONS_TYPE = new TypeToken<List<String>>() {}.getType();
+    private static final String DATABASE_FILE = "polls.db";
+
+    // An upsert keeps the rowid, so polls are loaded in the order they were first written
+    private static final String INSERT_POLL = "INSERT INTO polls "
+            + "(id, custom_id, name, duration, creator_id, creator_name, options, active, start_time, end_time, mode) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (id) DO UPDATE SET "
+            + "custom_id = excluded.custom_id, name = excluded.name, duration = excluded.duration, "
+            + "creator_id = excluded.creator_id, creator_name = excluded.creator_name, options = excluded.options, "
+            + "active = excluded.active, start_time = excluded.start_time, end_time = excluded.end_time, "
+            + "mode = excluded.mode";
+    private static final String UPDATE_STATE = "UPDATE polls SET active = ?, start_time = ?, end_time = ? WHERE id = ?";
+    private static final String UPDATE_ACTIVE = "UPDATE polls SET active = ? WHERE id = ?";
+    private static final String INSERT_VOTE = "INSERT OR REPLACE INTO votes (poll_id, voter_id, option) VALUES (?, ?, ?)";
+    private static final String DELETE_VOTE = "DELETE FROM votes WHERE poll_id = ? AND voter_id = ?";
+    private static final String DELETE_VOTES = "DELETE FROM votes WHERE poll_id = ?";
+    private static final String SELECT_VOTES = "SELECT voter_id, option FROM votes WHERE poll_id = ?";
+
+    private final JavaPlugin plugin;
+    private final Logger logger;
+    private final File file;
+    // Only used by the writer; reads of single polls use connections of their own
+    private final Connection connection;
+    // Idle read connections, WAL mode lets them read while the writer commits
+    private final Queue<Connection> readConnections = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+    private final Supplier<List<PollManager.Poll>> snapshot;
+    private final AsyncPollWriter writer;
+
+    public SqlitePollStore(JavaPlugin plugin, Supplier<List<PollManager.Poll>> snapshot, Runnable afterCompaction)
+            throws SQLException {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.snapshot = snapshot;
+        this.file = new File(plugin.getDataFolder(), DATABASE_FILE);
+        this.connection = open(file);
+        this.writer = AsyncPollWriter.create(plugin, this, afterCompaction);
+    }
+
+    private static Connection open(File file) throws SQLException {
+        File folder = file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new SQLException("Failed to create plugin data folder");
+        }
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("SQLite driver is not available", e);
+        }
+
+        Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("CREATE TABLE IF NOT EXISTS polls ("
+                    + "id TEXT PRIMARY KEY, custom_id TEXT, name TEXT NOT NULL, duration INTEGER NOT NULL, "
+                    + "creator_id TEXT NOT NULL, creator_name TEXT, options TEXT NOT NULL, "
+                    + "active INTEGER NOT NULL, start_time INTEGER NOT NULL, end_time INTEGER NOT NULL, "
+                    + "mode TEXT NOT NULL DEFAULT 'SINGLE')");
+            if (!hasColumn(statement, "polls", "mode")) {
+                // Databases created before voting modes existed only hold single choice polls
+                statement.execute("ALTER TABLE polls ADD COLUMN mode TEXT NOT NULL DEFAULT 'SINGLE'");
+            }
+            statement.execute("CREATE TABLE IF NOT EXISTS votes ("
+                    + "poll_id TEXT NOT NULL, voter_id TEXT NOT NULL, option INTEGER NOT NULL, "
+                    + "PRIMARY KEY (poll_id, voter_id)) WITHOUT ROWID");
+            statement.execute("CREATE INDEX IF NOT EXISTS votes_voter ON votes (voter_id)");
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private Connection openReader() throws SQLException {
+        Connection reader = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+        try (Statement statement = reader.createStatement()) {
+            statement.execute("PRAGMA query_only = true");
+        } catch (SQLException e) {
+            reader.close();
+            throw e;
+        }
+        return reader;
+    }
+
+    private static boolean hasColumn(Statement statement, String table, String column) throws SQLException {
+        try (ResultSet columns = statement.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (columns.next()) {
+                if (column.equalsIgnoreCase(columns.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void load(Consumer<PollManager.Poll> pollConsumer, Consumer<PollJournal.Event> eventConsumer,
+                                  boolean lazyClosedPolls) {
+        try {
+            if (isEmpty() && importFiles(pollConsumer, eventConsumer)) {
+                return;
+            }
+
+            List<PollManager.Poll> polls = new ArrayList<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery("SELECT id, custom_id, name, duration, creator_id, "
+                         + "creator_name, options, active, start_time, end_time, mode FROM polls ORDER BY rowid")) {
+                while (rows.next()) {
+                    PollSerializer.PollData data = new PollSerializer.PollData(
+                            UUID.fromString(rows.getString(1)),
+                            rows.getString(2),
+                            rows.getString(3),
+                            rows.getLong(4),
+                            UUID.fromString(rows.getString(5)),
+                            rows.getString(6),
+                            GSON.fromJson(rows.getString(7), OPTIONS_TYPE),
+                            null,
+                            rows.getBoolean(8),
+                            rows.getLong(9),
+                            rows.getLong(10),
+                            readMode(rows.getString(11)));
+                    polls.add(data.toPoll());
+                }
+            }
+            connection.commit();
+
+            // Votes are read per poll afterwards, through loadVotes
+            for (PollManager.Poll poll : polls) {
+                poll.markVotesPending();
+                poll.markPersisted(poll.getVersion());
+                pollConsumer.accept(poll);
+            }
+            logger.info("Loaded " + polls.size() + " polls from the database");
+        } catch (SQLException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Failed to load polls from the database", e);
+            rollback();
+        }
+    }
+
+    private boolean isEmpty() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM polls)")) {
+            return !rows.next() || !rows.getBoolean(1);
+        }
+    }
+
+    /**
+     * Reads the votes of a poll using the primary key, so only that poll's rows are touched.
+     * Each calling thread borrows a read connection of its own, so reads run in parallel and
+     * never wait for the writer.
+     */
+    @Override
+    public void loadVotes(UUID pollId, BiConsumer<UUID, Integer> consumer) throws IOException {
+        Connection reader = readConnections.poll();
+        try {
+            if (reader == null) {
+                reader = openReader();
+            }
+            try (PreparedStatement statement = reader.prepareStatement(SELECT_VOTES)) {
+                statement.setString(1, pollId.toString());
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        consumer.accept(UUID.fromString(rows.getString(1)), rows.getInt(2));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            close(reader);
+            reader = null;
+            throw new IOException("Failed to read the votes of poll " + pollId, e);
+        } finally {
+            if (reader != null) {
+                readConnections.add(reader);
+                // Returned after shutdown closed the idle ones
+                if (closed && readConnections.remove(reader)) {
+                    close(reader);
+                }
+            }
+        }
+    }
+
+    /**
+     * Imports the poll files and journal written by {@link FilePollStore}, if there are any.
+     *
+     * @return true if polls were imported
+     */
+    private boolean importFiles(Consumer<PollManager.Poll> pollConsumer, Consumer<PollJournal.Event> eventConsumer) {
+        File dataFolder = plugin.getDataFolder();
+        PollSerializer serializer = new PollSerializer(plugin);
+        if (!serializer.hasStoredPolls()) return false;
+
+        List<PollManager.Poll> imported = new ArrayList<>();
+        serializer.loadPolls(poll -> {
+            imported.add(poll);
+            pollConsumer.accept(poll);
+        }, false);
+        new PollJournal(plugin).replay(eventConsumer);
+
+        // Write everything, including polls created by the journal, before the files are put aside
+        if (!compact()) {
+            logger.severe("Failed to import polls into the database, keeping the poll files");
+            return true;
+        }
+        for (String name : List.of("polls", "polls.journal")) {
+            File file = new File(dataFolder, name);
+            if (!file.exists()) continue;
+            try {
+                Files.move(file.toPath(), new File(dataFolder, name + ".migrated").toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to rename " + name + " after migration", e);
+            }
+        }
+        logger.info("Migrated " + imported.size() + " polls from the poll files to " + DATABASE_FILE);
+        return true;
+    }
+
+    @Override
+    public void record(PollJournal.Event event) {
+        writer.record(event);
+    }
+
+    @Override
+    public void requestFlush() {
+        writer.requestFlush();
+    }
+
+    @Override
+    public void flush() {
+        writer.flush();
+    }
+
+    @Override
+    public int pendingChanges() {
+        return writer.pending();
+    }
+
+    @Override
+    public boolean execute(Runnable task) {
+        return writer.execute(task);
+    }
+
+    @Override
+    public void shutdown() {
+        writer.shutdown(false);
+        closed = true;
+        Connection reader;
+        while ((reader = readConnections.poll()) != null) {
+            close(reader);
+        }
+        synchronized (this) {
+            close(connection);
+        }
+    }
+
+    private void close(Connection closing) {
+        if (closing == null) return;
+        try {
+            closing.close();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Failed to close the poll database", e);
+        }
+    }
+
+    /**
+     * Applies the events in a single transaction.
+     */
+    @Override
+    public synchronized boolean append(List<PollJournal.Event> events) {
+        try (PreparedStatement insertPoll = connection.prepareStatement(INSERT_POLL);
+             PreparedStatement updateState = connection.prepareStatement(UPDATE_STATE);
+             PreparedStatement updateActive = connection.prepareStatement(UPDATE_ACTIVE);
+             PreparedStatement insertVote = connection.prepareStatement(INSERT_VOTE);
+             PreparedStatement deleteVote = connection.prepareStatement(DELETE_VOTE);
+             PreparedStatement deleteVotes = connection.prepareStatement(DELETE_VOTES)) {
+            for (PollJournal.Event event : events) {
+                String pollId = event.pollId().toString();
+                switch (event.type()) {
+                    case CREATE -> {
+                        if (event.poll() == null) continue;
+                        bindPoll(insertPoll, event.poll());
+                        insertPoll.executeUpdate();
+                        deleteVotes.setString(1, pollId);
+                        deleteVotes.executeUpdate();
+                        if (event.poll().votes() != null) {
+                            for (Map.Entry<UUID, Integer> vote : event.poll().votes().entrySet()) {
+                                bindVote(insertVote, pollId, vote.getKey().toString(), vote.getValue());
+                                insertVote.executeUpdate();
+                            }
+                        }
+                    }
+                    case START -> {
+                        updateState.setBoolean(1, true);
+                        updateState.setLong(2, event.startTime());
+                        updateState.setLong(3, event.endTime());
+                        updateState.setString(4, pollId);
+                        updateState.executeUpdate();
+                    }
+                    case STOP -> {
+                        updateActive.setBoolean(1, false);
+                        updateActive.setString(2, pollId);
+                        updateActive.executeUpdate();
+                    }
+                    case VOTE -> {
+                        bindVote(insertVote, pollId, event.voterId().toString(), event.option());
+                        insertVote.executeUpdate();
+                    }
+                    case UNVOTE -> {
+                        deleteVote.setString(1, pollId);
+                        deleteVote.setString(2, event.voterId().toString());
+                        deleteVote.executeUpdate();
+                    }
+                }
+            }
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to write " + events.size() + " poll changes to the database", e);
+            rollback();
+            return false;
+        }
+    }
+
+    /**
+     * Changes are written in place, so there is never anything to fold.
+     */
+    @Override
+    public int backlog() {
+        return 0;
+    }
+
+    /**
+     * Rewrites every registered poll together with its votes. Only needed after a failed append
+     * or when importing the polls file. Rows of polls that are not registered, e.g. because their
+     * votes failed to load, are left alone.
+     */
+    @Override
+    public boolean compact() {
+        // Copied before taking the monitor: a copy may wait for votes that are still being read
+        List<PollSerializer.PollData> polls = new ArrayList<>();
+        List<VoteTable.Snapshot> votes = new ArrayList<>();
+        try {
+            for (PollManager.Poll poll : snapshot.get()) {
+                votes.add(poll.votesSnapshot());
+                polls.add(PollSerializer.PollData.fromPoll(poll));
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Failed to read polls to write to the database", e);
+            return false;
+        }
+        return write(polls, votes);
+    }
+
+    private synchronized boolean write(List<PollSerializer.PollData> polls, List<VoteTable.Snapshot> votes) {
+        try (PreparedStatement insertPoll = connection.prepareStatement(INSERT_POLL);
+             PreparedStatement deleteVotes = connection.prepareStatement(DELETE_VOTES);
+             PreparedStatement insertVote = connection.prepareStatement(INSERT_VOTE)) {
+            for (int p = 0; p < polls.size(); p++) {
+                bindPoll(insertPoll, polls.get(p));
+                insertPoll.executeUpdate();
+
+                String pollId = polls.get(p).id().toString();
+                deleteVotes.setString(1, pollId);
+                deleteVotes.executeUpdate();
+                VoteTable.Snapshot pollVotes = votes.get(p);
+                for (int i = 0; i < pollVotes.size(); i++) {
+                    bindVote(insertVote, pollId, pollVotes.voterId(i).toString(), pollVotes.ballot(i));
+                    insertVote.addBatch();
+                }
+                insertVote.executeBatch();
+            }
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Failed to write polls to the database", e);
+            rollback();
+            return false;
+        }
+    }
+
+    private static VotingMode readMode(String name) throws SQLException {
+        VotingMode mode = VotingMode.fromName(name);
+        if (mode == null) {
+            throw new SQLException("Unknown voting mode " + name);
+        }
+        return mode;
+    }
+
+    private static void bindPoll(PreparedStatement statement, PollSerializer.PollData poll) throws SQLException {
+        statement.setString(1, poll.id().toString());
+        statement.setString(2, poll.customId());
+        statement.setString(3, poll.name());
+        statement.setLong(4, poll.duration());
+        statement.setString(5, poll.creatorId().toString());
+        statement.setString(6, poll.creatorName());
+        statement.setString(7, GSON.toJson(poll.options()));
+        statement.setBoolean(8, poll.active());
+        statement.setLong(9, poll.startTime());
+        statement.setLong(10, poll.endTime());
+        statement.setString(11, (poll.mode() != null ? poll.mode() : VotingMode.SINGLE).name());
+    }
+
+    private static void bindVote(PreparedStatement statement, String pollId, String voterId, int ballot)
+            throws SQLException {
+        statement.setString(1, pollId);
+        statement.setString(2, voterId);
+        statement.setInt(3, ballot);
+    }
+
+    private void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Failed to roll back the poll database", e);
+        }
+    }
+}
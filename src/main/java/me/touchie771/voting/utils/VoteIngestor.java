@@ -0,0 +1,212 @@
+package me.touchie771.voting.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Applies votes and unvotes off the command thread.
+ * Commands only enqueue a request into a bounded queue; a single consumer thread drains the
+ * queue in batches, applies each request to its poll, journals the change and requests one
+ * persistence flush per batch. When the queue is full, new requests are rejected immediately
+ * instead of blocking the caller, so a vote burst can never stall the server.
+ */
+public class VoteIngestor {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+
+    private final BlockingQueue<Request> queue;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Logger logger;
+    private final int batchSize;
+    private final Consumer<PollJournal.Event> recorder;
+    private final Runnable afterBatch;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * Creates the ingestor and starts its consumer thread.
+     *
+     * @param logger the logger used to report failed requests
+     * @param capacity the maximum number of queued requests
+     * @param batchSize the maximum number of requests applied per batch
+     * @param recorder receives the journal event of every applied change
+     * @param afterBatch called after each batch that changed at least one poll
+     */
+    public VoteIngestor(Logger logger, int capacity, int batchSize, Consumer<PollJournal.Event> recorder,
+                        Runnable afterBatch) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.logger = logger;
+        this.batchSize = Math.max(1, batchSize);
+        this.recorder = recorder;
+        this.afterBatch = afterBatch;
+        this.thread = new Thread(this::run, "Voting-VoteIngestor");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queues a vote. The callback is invoked on the ingestor thread once the vote was applied.
+     *
+     * @return false if the queue is full or the ingestor was shut down, in which case the callback is never invoked
+     */
+    public boolean submitVote(PollManager.Poll poll, UUID voterId, int ballot, Consumer<Result> callback) {
+        return running && ballot >= 0 && queue.offer(new Request(poll, voterId, ballot, callback));
+    }
+
+    /**
+     * Queues the removal of a vote. The callback is invoked on the ingestor thread once it was applied.
+     *
+     * @return false if the queue is full or the ingestor was shut down, in which case the callback is never invoked
+     */
+    public boolean submitUnvote(PollManager.Poll poll, UUID voterId, Consumer<Result> callback) {
+        return running && queue.offer(new Request(poll, voterId, Request.UNVOTE, callback));
+    }
+
+    /**
+     * Runs a task on the ingestor thread, between two batches. Changes made by the task are never
+     * interleaved with queued votes, so it may modify votes as well.
+     *
+     * @return false if the ingestor was shut down, in which case the task never runs
+     */
+    public boolean execute(Runnable task) {
+        if (!running) return false;
+        tasks.add(task);
+        return true;
+    }
+
+    /**
+     * Returns the number of requests waiting to be applied.
+     *
+     * @return the queue length
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting requests and waits for the queued ones to be applied.
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            logger.warning("Vote ingestor did not finish in time, " + queue.size() + " votes were not applied");
+        }
+    }
+
+    private void run() {
+        List<Request> batch = new ArrayList<>(batchSize);
+        boolean interrupted = false;
+        while (running || !queue.isEmpty() || !tasks.isEmpty()) {
+            runTasks();
+            try {
+                // Once stopped, only what is already queued is drained
+                Request first = running ? queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS) : queue.poll();
+                if (first == null) continue;
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // Handled like a shutdown: new requests are rejected, queued ones are still applied
+                running = false;
+                interrupted = true;
+                continue;
+            }
+            queue.drainTo(batch, batchSize - 1);
+
+            boolean changed = false;
+            for (Request request : batch) {
+                changed |= apply(request);
+            }
+            batch.clear();
+
+            if (changed) {
+                afterBatch.run();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Vote ingestor task failed", e);
+            }
+        }
+    }
+
+    private boolean apply(Request request) {
+        Result result;
+        try {
+            result = request.isUnvote() ? applyUnvote(request) : applyVote(request);
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Failed to apply vote to poll " + request.poll().getId(), e);
+            result = Result.FAILED;
+        }
+
+        try {
+            request.callback().accept(result);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Vote callback failed", e);
+        }
+        return result.isChange();
+    }
+
+    private Result applyVote(Request request) {
+        PollManager.Poll poll = request.poll();
+        if (!poll.isActive()) {
+            return Result.INACTIVE;
+        }
+        // Requests are applied one at a time, so no other vote of this voter can interleave here
+        boolean hadVoted = poll.hasVoted(request.voterId());
+        if (!poll.castBallot(request.voterId(), request.ballot())) {
+            return poll.isActive() ? Result.INVALID_OPTION : Result.INACTIVE;
+        }
+        recorder.accept(PollJournal.Event.vote(poll, request.voterId(), request.ballot()));
+        return hadVoted ? Result.CHANGED : Result.VOTED;
+    }
+
+    private Result applyUnvote(Request request) {
+        PollManager.Poll poll = request.poll();
+        if (!poll.unvote(request.voterId())) {
+            return Result.NOT_VOTED;
+        }
+        recorder.accept(PollJournal.Event.unvote(poll, request.voterId()));
+        return Result.REMOVED;
+    }
+
+    /**
+     * The outcome of a queued request.
+     */
+    public enum Result {
+        VOTED, CHANGED, REMOVED, NOT_VOTED, INACTIVE, INVALID_OPTION, FAILED;
+
+        boolean isChange() {
+            return this == VOTED || this == CHANGED || this == REMOVED;
+        }
+    }
+
+    private record Request(PollManager.Poll poll, UUID voterId, int ballot, Consumer<Result> callback) {
+        static final int UNVOTE = -1;
+
+        boolean isUnvote() {
+            return ballot == UNVOTE;
+        }
+    }
+}
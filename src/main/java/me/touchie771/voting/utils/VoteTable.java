@@ -0,0 +1,304 @@
+package me.touchie771.voting.utils;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Concurrent map from voter UUID to {@link Ballot} that stores no objects per voter.
+ * <p>
+ * Voters are spread over a fixed number of segments, each an open-addressing table with linear
+ * probing. A segment keeps the two halves of every voter UUID in {@code long} arrays and the ballot
+ * in an {@code int} array, so a vote takes about 28 bytes instead of a boxed {@code Integer}, a
+ * {@code UUID} and a hash map node. Removal shifts the following entries back instead of leaving
+ * tombstones. Each segment is guarded by its own monitor, so voters in different segments never
+ * contend.
+ */
+public class VoteTable {
+
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+    private static final int MIN_SEGMENT_CAPACITY = 8;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    public VoteTable() {
+        this(0);
+    }
+
+    /**
+     * @param expectedVoters the number of voters to size the table for
+     */
+    public VoteTable(int expectedVoters) {
+        int capacity = capacityFor(Math.max(0, expectedVoters) / SEGMENT_COUNT + 1);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(capacity);
+        }
+    }
+
+    /**
+     * Records the ballot of a voter, replacing their previous vote.
+     *
+     * @return the previous ballot of the voter, or -1 if they had not voted
+     */
+    public int put(UUID voterId, int ballot) {
+        return put(voterId.getMostSignificantBits(), voterId.getLeastSignificantBits(), ballot);
+    }
+
+    public int put(long mostSigBits, long leastSigBits, int ballot) {
+        if (ballot < 0 || ballot == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Ballot out of range: " + ballot);
+        }
+        int hash = hash(mostSigBits, leastSigBits);
+        return segmentFor(hash).put(hash, mostSigBits, leastSigBits, ballot);
+    }
+
+    /**
+     * Removes the vote of a voter.
+     *
+     * @return the ballot the voter had cast, or -1 if they had not voted
+     */
+    public int remove(UUID voterId) {
+        long most = voterId.getMostSignificantBits();
+        long least = voterId.getLeastSignificantBits();
+        int hash = hash(most, least);
+        return segmentFor(hash).remove(hash, most, least);
+    }
+
+    /**
+     * Returns the ballot a voter has cast.
+     *
+     * @return the ballot, or -1 if the voter has not voted
+     */
+    public int get(UUID voterId) {
+        long most = voterId.getMostSignificantBits();
+        long least = voterId.getLeastSignificantBits();
+        int hash = hash(most, least);
+        return segmentFor(hash).get(hash, most, least);
+    }
+
+    public boolean contains(UUID voterId) {
+        return get(voterId) >= 0;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * Passes every vote to the given consumer. Votes changed concurrently in segments that were
+     * already visited are not reflected.
+     */
+    public void forEach(BiConsumer<UUID, Integer> consumer) {
+        Snapshot snapshot = snapshot();
+        for (int i = 0; i < snapshot.size(); i++) {
+            consumer.accept(snapshot.voterId(i), snapshot.ballot(i));
+        }
+    }
+
+    /**
+     * Copies the votes into compact arrays, one segment at a time.
+     *
+     * @return the copied votes
+     */
+    public Snapshot snapshot() {
+        int capacity = size();
+        long[] most = new long[capacity];
+        long[] least = new long[capacity];
+        int[] ballots = new int[capacity];
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                int required = size + segment.size;
+                if (required > ballots.length) {
+                    // Grew since the size was read
+                    int grown = Math.max(required, ballots.length + (ballots.length >> 1));
+                    most = Arrays.copyOf(most, grown);
+                    least = Arrays.copyOf(least, grown);
+                    ballots = Arrays.copyOf(ballots, grown);
+                }
+                size = segment.copyTo(most, least, ballots, size);
+            }
+        }
+        return new Snapshot(most, least, ballots, size);
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[hash >>> (Integer.SIZE - SEGMENT_BITS)];
+    }
+
+    static int hash(long most, long least) {
+        // Finalizer of MurmurHash3, so version and variant bits do not cluster the table
+        long h = most ^ Long.rotateLeft(least, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int capacityFor(int entries) {
+        // Keeps the load factor at or below two thirds
+        int capacity = MIN_SEGMENT_CAPACITY;
+        while (capacity * 2 < entries * 3) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Single open-addressing table. A ballot value of zero marks a free slot; ballots are stored plus one.
+     */
+    private static final class Segment {
+        private long[] most;
+        private long[] least;
+        private int[] ballots;
+        private int mask;
+        private volatile int size;
+
+        Segment(int capacity) {
+            allocate(capacity);
+        }
+
+        private void allocate(int capacity) {
+            most = new long[capacity];
+            least = new long[capacity];
+            ballots = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        synchronized int get(int hash, long voterMost, long voterLeast) {
+            int slot = find(hash, voterMost, voterLeast);
+            return slot < 0 ? -1 : ballots[slot] - 1;
+        }
+
+        synchronized int put(int hash, long voterMost, long voterLeast, int ballot) {
+            int slot = find(hash, voterMost, voterLeast);
+            if (slot >= 0) {
+                int previous = ballots[slot] - 1;
+                ballots[slot] = ballot + 1;
+                return previous;
+            }
+
+            if ((size + 1) * 3 > ballots.length * 2) {
+                resize(ballots.length << 1);
+            }
+            insert(hash, voterMost, voterLeast, ballot + 1);
+            size++;
+            return -1;
+        }
+
+        synchronized int remove(int hash, long voterMost, long voterLeast) {
+            int slot = find(hash, voterMost, voterLeast);
+            if (slot < 0) return -1;
+            int previous = ballots[slot] - 1;
+
+            // Shift later entries of the probe sequence back into the gap
+            int gap = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                if (ballots[next] == 0) break;
+                int home = hash(most[next], least[next]) & mask;
+                boolean movable = gap <= next ? (home <= gap || home > next) : (home <= gap && home > next);
+                if (movable) {
+                    most[gap] = most[next];
+                    least[gap] = least[next];
+                    ballots[gap] = ballots[next];
+                    gap = next;
+                }
+            }
+            ballots[gap] = 0;
+            most[gap] = 0;
+            least[gap] = 0;
+            size--;
+            return previous;
+        }
+
+        int copyTo(long[] targetMost, long[] targetLeast, int[] targetBallots, int offset) {
+            for (int slot = 0; slot < ballots.length; slot++) {
+                if (ballots[slot] != 0) {
+                    targetMost[offset] = most[slot];
+                    targetLeast[offset] = least[slot];
+                    targetBallots[offset++] = ballots[slot] - 1;
+                }
+            }
+            return offset;
+        }
+
+        private int find(int hash, long voterMost, long voterLeast) {
+            int slot = hash & mask;
+            while (ballots[slot] != 0) {
+                if (most[slot] == voterMost && least[slot] == voterLeast) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void insert(int hash, long voterMost, long voterLeast, int storedBallot) {
+            int slot = hash & mask;
+            while (ballots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            most[slot] = voterMost;
+            least[slot] = voterLeast;
+            ballots[slot] = storedBallot;
+        }
+
+        private void resize(int capacity) {
+            long[] oldMost = most;
+            long[] oldLeast = least;
+            int[] oldBallots = ballots;
+            allocate(capacity);
+            for (int slot = 0; slot < oldBallots.length; slot++) {
+                if (oldBallots[slot] != 0) {
+                    insert(hash(oldMost[slot], oldLeast[slot]), oldMost[slot], oldLeast[slot], oldBallots[slot]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Votes copied out of a table, in no particular order.
+     */
+    public static final class Snapshot {
+        private final long[] most;
+        private final long[] least;
+        private final int[] ballots;
+        private final int size;
+
+        private Snapshot(long[] most, long[] least, int[] ballots, int size) {
+            this.most = most;
+            this.least = least;
+            this.ballots = ballots;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long mostSignificantBits(int index) {
+            return most[index];
+        }
+
+        public long leastSignificantBits(int index) {
+            return least[index];
+        }
+
+        public UUID voterId(int index) {
+            return new UUID(most[index], least[index]);
+        }
+
+        public int ballot(int index) {
+            return ballots[index];
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package me.touchie771.voting.utils;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How a poll counts its ballots. The per-option tallies of a poll hold what this mode counts for
+ * each option: votes, summed weights, or first preferences.
+ */
+public enum VotingMode {
+
+    /** Every voter picks one option. */
+    SINGLE,
+    /** Every voter picks one option, counted with the weight granted by their permissions. */
+    WEIGHTED,
+    /** Every voter ranks options; the winner is decided by instant runoff. */
+    RANKED;
+
+    /**
+     * Returns the mode with the given name, ignoring case.
+     *
+     * @return the mode, or null if there is none with that name
+     */
+    public static VotingMode fromName(String name) {
+        for (VotingMode mode : values()) {
+            if (mode.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return mode;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the ballot of a voter picking a single option with weight one.
+     */
+    public int ballotFor(int option) {
+        return this == RANKED ? Ballot.ranking(List.of(option)) : Ballot.choice(option, 1);
+    }
+
+    /**
+     * Returns whether a ballot can be cast in a poll of this mode with the given number of options.
+     */
+    public boolean isValid(int ballot, int optionCount) {
+        return switch (this) {
+            case SINGLE -> ballot >= 0 && ballot < optionCount;
+            case WEIGHTED -> ballot >= 0 && Ballot.option(ballot) < optionCount
+                    && Ballot.weight(ballot) <= Ballot.MAX_WEIGHT;
+            case RANKED -> Ballot.isValidRanking(ballot, optionCount);
+        };
+    }
+
+    /**
+     * Returns the option whose tally a valid ballot counts towards.
+     */
+    int countedOption(int ballot) {
+        return this == RANKED ? Ballot.preference(ballot, 0) : Ballot.option(ballot);
+    }
+
+    /**
+     * Returns how much a valid ballot adds to the tally of its counted option.
+     */
+    int countedWeight(int ballot) {
+        return this == WEIGHTED ? Ballot.weight(ballot) : 1;
+    }
+
+    public String displayName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
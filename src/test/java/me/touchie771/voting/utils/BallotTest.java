@@ -0,0 +1,70 @@
+package me.touchie771.voting.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BallotTest {
+
+    @Test
+    void choicePacksOptionAndWeight() {
+        int ballot = Ballot.choice(Ballot.MAX_OPTIONS - 1, Ballot.MAX_WEIGHT);
+
+        assertEquals(Ballot.MAX_OPTIONS - 1, Ballot.option(ballot));
+        assertEquals(Ballot.MAX_WEIGHT, Ballot.weight(ballot));
+    }
+
+    @Test
+    void plainOptionIndexReadsAsWeightOne() {
+        // Votes written before weighted polls existed hold only the option index
+        assertEquals(3, Ballot.choice(3, 1));
+        assertEquals(3, Ballot.option(3));
+        assertEquals(1, Ballot.weight(3));
+    }
+
+    @Test
+    void choiceRejectsValuesOutsideItsBits() {
+        assertThrows(IllegalArgumentException.class, () -> Ballot.choice(Ballot.MAX_OPTIONS, 1));
+        assertThrows(IllegalArgumentException.class, () -> Ballot.choice(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> Ballot.choice(0, Ballot.MAX_WEIGHT + 1));
+    }
+
+    @Test
+    void rankingKeepsPreferencesInOrder() {
+        List<Integer> preferences = List.of(14, 0, 7, 3, 12, 1, 9);
+        int ballot = Ballot.ranking(preferences);
+
+        assertEquals(preferences.size(), Ballot.preferenceCount(ballot));
+        for (int rank = 0; rank < preferences.size(); rank++) {
+            assertEquals((int) preferences.get(rank), Ballot.preference(ballot, rank));
+        }
+        assertTrue(ballot > 0);
+        assertTrue(Ballot.isValidRanking(ballot, Ballot.MAX_RANKED_OPTIONS));
+    }
+
+    @Test
+    void shortRankingEndsAtFirstEmptyNibble() {
+        int ballot = Ballot.ranking(List.of(2, 0));
+
+        assertEquals(2, Ballot.preferenceCount(ballot));
+        assertEquals(-1, Ballot.preference(ballot, 2));
+    }
+
+    @Test
+    void invalidRankingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Ballot.ranking(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> Ballot.ranking(List.of(0, 1, 2, 3, 4, 5, 6, 7)));
+        assertThrows(IllegalArgumentException.class, () -> Ballot.ranking(List.of(Ballot.MAX_RANKED_OPTIONS)));
+
+        assertFalse(Ballot.isValidRanking(Ballot.ranking(List.of(1, 1)), 3));
+        assertFalse(Ballot.isValidRanking(Ballot.ranking(List.of(0, 3)), 3));
+        // A gap between two preferences
+        assertFalse(Ballot.isValidRanking(1 | 2 << 8, 3));
+        assertFalse(Ballot.isValidRanking(0, 3));
+    }
+}
@@ -0,0 +1,133 @@
+package me.touchie771.voting.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryPollFormatTest {
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private final BinaryPollFormat format = new BinaryPollFormat();
+    private final File file;
+
+    BinaryPollFormatTest() throws IOException {
+        file = Files.createTempFile("polls", format.extension()).toFile();
+    }
+
+    @AfterEach
+    void deleteFile() {
+        file.delete();
+    }
+
+    @Test
+    void pollsSurviveRoundTrip() throws IOException {
+        PollManager.Poll single = poll(VotingMode.SINGLE, List.of("Yes", "No"));
+        single.castBallot(UUID.randomUUID(), Ballot.choice(1, 3));
+        single.castBallot(UUID.randomUUID(), Ballot.choice(0, 1));
+        PollManager.Poll ranked = poll(VotingMode.RANKED, List.of("Pizza", "Pasta", "Soup"));
+        ranked.castBallot(UUID.randomUUID(), Ballot.ranking(List.of(2, 0, 1)));
+        ranked.stop();
+
+        format.write(file, List.of(single, ranked));
+        List<PollManager.Poll> read = read(false);
+
+        assertEquals(2, read.size());
+        assertSamePoll(single, read.get(0));
+        assertSamePoll(ranked, read.get(1));
+    }
+
+    @Test
+    void closedPollVotesAreReadOnDemand() throws IOException {
+        PollManager.Poll closed = poll(VotingMode.SINGLE, List.of("Yes", "No"));
+        for (int i = 0; i < 50; i++) {
+            closed.castBallot(UUID.randomUUID(), Ballot.choice(i % 2, 1));
+        }
+        closed.stop();
+
+        format.write(file, List.of(closed));
+        PollManager.Poll read = read(true).get(0);
+
+        assertFalse(read.hasResidentVotes());
+        assertEquals(50, read.getResults().voterCount());
+        assertEquals(25, read.getResults().voteCount(1));
+        Map<UUID, Integer> votes = new HashMap<>();
+        assertTrue(format.openVoteReader(file).readVotes(closed.getId(), votes::put));
+        assertEquals(closed.getVotes(), votes);
+        assertFalse(format.openVoteReader(file).readVotes(UUID.randomUUID(), votes::put));
+    }
+
+    @Test
+    void versionOneFileReadsAsSingleChoice() throws IOException {
+        PollManager.Poll poll = poll(VotingMode.SINGLE, List.of("Yes", "No"));
+        poll.castBallot(UUID.randomUUID(), 1);
+
+        // Version 1 only differs by not storing a mode, which leaves the mode bits clear
+        format.write(file, List.of(poll));
+        writeVersion((short) 1);
+        PollManager.Poll read = read(false).get(0);
+
+        assertEquals(VotingMode.SINGLE, read.getMode());
+        assertSamePoll(poll, read);
+    }
+
+    @Test
+    void newerVersionIsRejected() throws IOException {
+        format.write(file, List.of(poll(VotingMode.SINGLE, List.of("Yes", "No"))));
+        writeVersion((short) (BinaryPollFormat.VERSION + 1));
+
+        assertThrows(IOException.class, () -> read(false));
+    }
+
+    private PollManager.Poll poll(VotingMode mode, List<String> options) {
+        PollManager.Poll poll = PollManager.getBuilder()
+                .customId("binary-" + COUNTER.incrementAndGet())
+                .name("Format poll")
+                .duration(60_000L)
+                .creator(UUID.randomUUID(), "Tester")
+                .options(options)
+                .mode(mode)
+                .build();
+        poll.start();
+        return poll;
+    }
+
+    private List<PollManager.Poll> read(boolean lazyClosedPolls) throws IOException {
+        List<PollManager.Poll> polls = new ArrayList<>();
+        format.read(file, polls::add, lazyClosedPolls);
+        return polls;
+    }
+
+    private void writeVersion(short version) throws IOException {
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.seek(4);
+            out.writeShort(version);
+        }
+    }
+
+    private static void assertSamePoll(PollManager.Poll expected, PollManager.Poll actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getCustomId(), actual.getCustomId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getOptions(), actual.getOptions());
+        assertEquals(expected.getMode(), actual.getMode());
+        assertEquals(expected.isActive(), actual.isActive());
+        assertEquals(expected.getState().startTime(), actual.getState().startTime());
+        assertEquals(expected.getVotes(), actual.getVotes());
+    }
+}
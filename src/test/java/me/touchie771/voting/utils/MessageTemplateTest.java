@@ -0,0 +1,123 @@
+package me.touchie771.voting.utils;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.flattener.ComponentFlattener;
+import net.kyori.adventure.text.flattener.FlattenerListener;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MessageTemplateTest {
+
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+    private static final Pattern TAG = Pattern.compile("<([a-z_]+)>");
+
+    @Test
+    void staticTemplateIsParsedOnce() {
+        MessageTemplate template = MessageTemplate.of("<red>Poll not found</red>");
+
+        assertSame(template.render(), template.render());
+    }
+
+    @Test
+    void placeholdersRenderLikeMiniMessage() throws IllegalAccessException {
+        for (Field field : Messages.class.getFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) || field.getType() != MessageTemplate.class) continue;
+            String template = field.get(null).toString();
+
+            List<TagResolver> placeholders = new ArrayList<>();
+            for (String name : placeholderNames(template)) {
+                // Formatting in values must stay plain text
+                placeholders.add(Placeholder.unparsed(name, "<red>" + name + "</red> & more"));
+            }
+            TagResolver[] resolvers = placeholders.toArray(new TagResolver[0]);
+
+            assertEquals(flatten(MINI_MESSAGE.deserialize(template, TagResolver.resolver(resolvers))),
+                    flatten(MessageTemplate.of(template).render(resolvers)), field.getName());
+        }
+    }
+
+    @Test
+    void missingPlaceholderIsShownAsWritten() {
+        String template = "<yellow>Poll <white><poll_id></white> is <state></yellow>";
+        TagResolver id = Placeholder.unparsed("poll_id", "best-food");
+
+        assertEquals(flatten(MINI_MESSAGE.deserialize(template, id)),
+                flatten(MessageTemplate.of(template).render(id)));
+    }
+
+    @Test
+    void otherResolversFallBackToParsing() {
+        String template = "<gray>Winner: <winner></gray>";
+        TagResolver winner = Placeholder.parsed("winner", "<green>Pizza</green>");
+
+        assertEquals(flatten(MINI_MESSAGE.deserialize(template, winner)),
+                flatten(MessageTemplate.of(template).render(winner)));
+    }
+
+    private static Set<String> placeholderNames(String template) {
+        Set<String> names = new LinkedHashSet<>();
+        Matcher matcher = TAG.matcher(template);
+        while (matcher.find()) {
+            if (!TagResolver.standard().has(matcher.group(1))) {
+                names.add(matcher.group(1));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Reduces a component to its text runs and their effective styles, so components built
+     * differently but shown the same compare equal.
+     */
+    private static List<String> flatten(Component component) {
+        List<String> runs = new ArrayList<>();
+        Deque<Style> styles = new ArrayDeque<>();
+        styles.push(Style.empty());
+        StringBuilder text = new StringBuilder();
+        Style[] runStyle = {Style.empty()};
+        ComponentFlattener.basic().flatten(component, new FlattenerListener() {
+            @Override
+            public void pushStyle(Style style) {
+                styles.push(styles.peek().merge(style));
+            }
+
+            @Override
+            public void component(String piece) {
+                if (piece.isEmpty()) return;
+                Style style = styles.peek();
+                if (!style.equals(runStyle[0]) && !text.isEmpty()) {
+                    runs.add(runStyle[0] + ":" + text);
+                    text.setLength(0);
+                }
+                runStyle[0] = style;
+                text.append(piece);
+            }
+
+            @Override
+            public void popStyle(Style style) {
+                styles.pop();
+            }
+        });
+        if (!text.isEmpty()) {
+            runs.add(runStyle[0] + ":" + text);
+        }
+        return runs;
+    }
+}
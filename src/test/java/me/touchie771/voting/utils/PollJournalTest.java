@@ -0,0 +1,87 @@
+package me.touchie771.voting.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PollJournalTest {
+
+    private final UUID pollId = UUID.randomUUID();
+    private final File file;
+    private final PollJournal journal;
+
+    PollJournalTest() throws IOException {
+        file = Files.createTempFile("polls", ".journal").toFile();
+        journal = new PollJournal(file, Logger.getLogger("PollJournalTest"));
+    }
+
+    @AfterEach
+    void deleteFile() {
+        file.delete();
+    }
+
+    @Test
+    void replaysEventsInOrder() {
+        List<PollJournal.Event> events = List.of(vote(0), vote(1), unvote());
+        assertTrue(journal.append(events));
+
+        assertEquals(events, replay());
+        assertEquals(3, journal.size());
+    }
+
+    @Test
+    void corruptLinesAreSkipped() throws IOException {
+        PollJournal.Event first = vote(0);
+        PollJournal.Event second = vote(1);
+        journal.append(List.of(first));
+        appendRaw("{\"type\":\"VOTE\",\"pollId\":\n");
+        appendRaw("not json at all\n");
+        appendRaw("\n");
+        journal.append(List.of(second));
+        // Left behind by a crash halfway through an append
+        appendRaw("{\"type\":\"UNVOTE\",\"poll");
+
+        assertEquals(List.of(first, second), replay());
+        assertEquals(2, journal.size());
+    }
+
+    @Test
+    void truncateEmptiesTheJournal() {
+        journal.append(List.of(vote(0)));
+
+        assertTrue(journal.truncate());
+
+        assertEquals(List.of(), replay());
+        assertEquals(0, journal.size());
+    }
+
+    private List<PollJournal.Event> replay() {
+        List<PollJournal.Event> replayed = new ArrayList<>();
+        journal.replay(replayed::add);
+        return replayed;
+    }
+
+    private void appendRaw(String text) throws IOException {
+        Files.writeString(file.toPath(), text, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private PollJournal.Event vote(int ballot) {
+        return new PollJournal.Event(PollJournal.Type.VOTE, pollId, UUID.randomUUID(), ballot, 0, 0, null);
+    }
+
+    private PollJournal.Event unvote() {
+        return new PollJournal.Event(PollJournal.Type.UNVOTE, pollId, UUID.randomUUID(), 0, 0, 0, null);
+    }
+}
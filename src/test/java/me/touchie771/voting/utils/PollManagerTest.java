@@ -0,0 +1,194 @@
+package me.touchie771.voting.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PollManagerTest {
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private final UUID creator = UUID.randomUUID();
+
+    private void createPolls(int count) {
+        for (int i = 0; i < count; i++) {
+            PollManager.getBuilder()
+                    .customId("page-" + COUNTER.incrementAndGet())
+                    .name("Paging poll")
+                    .duration(60_000L)
+                    .creator(creator, "Tester")
+                    .options(List.of("Yes", "No"))
+                    .build();
+        }
+    }
+
+    @Test
+    void returnsPartialLastPage() {
+        createPolls(25);
+
+        PollManager.PollPage page = PollManager.getPollsByCreator(creator, 2, 10);
+
+        assertEquals(5, page.polls().size());
+        assertEquals(3, page.totalPages());
+        assertEquals(25, page.totalPolls());
+    }
+
+    @Test
+    void pageAfterLastIsEmpty() {
+        createPolls(3);
+
+        PollManager.PollPage page = PollManager.getPollsByCreator(creator, 1, 10);
+
+        assertTrue(page.polls().isEmpty());
+        assertEquals(1, page.totalPages());
+        assertEquals(3, page.totalPolls());
+    }
+
+    @Test
+    void hugePageNumberDoesNotOverflow() {
+        createPolls(3);
+
+        PollManager.PollPage page = PollManager.getPollsByCreator(creator, Integer.MAX_VALUE - 1, 10);
+
+        assertTrue(page.polls().isEmpty());
+        assertEquals(1, page.totalPages());
+    }
+
+    @Test
+    void creatorWithoutPollsHasOneEmptyPage() {
+        PollManager.PollPage page = PollManager.getPollsByCreator(UUID.randomUUID(), 0, 10);
+
+        assertTrue(page.polls().isEmpty());
+        assertEquals(1, page.totalPages());
+        assertEquals(0, page.totalPolls());
+    }
+
+    @Test
+    void readersDoNotWaitForPendingVotes() {
+        PollManager.Poll poll = PollManager.getBuilder()
+                .customId("load-" + COUNTER.incrementAndGet())
+                .name("Loading poll")
+                .duration(60_000L)
+                .creator(creator, "Tester")
+                .options(List.of("Yes", "No"))
+                .build();
+        UUID voter = UUID.randomUUID();
+        poll.markVotesPending();
+        poll.restoreVote(voter, Ballot.choice(1, 1));
+
+        assertFalse(poll.isLoaded());
+        assertFalse(poll.hasResidentVotes());
+        assertEquals(0, poll.getResults().voterCount());
+
+        poll.completeVotes(new VoteTable());
+
+        assertTrue(poll.isLoaded());
+        assertTrue(poll.hasVoted(voter));
+        assertEquals(1, poll.getResults().voterCount());
+        assertEquals(1, poll.getResults().voteCount(1));
+    }
+
+    @Test
+    void unloadedVotesAreReadInTheBackground() {
+        PollManager.Poll poll = PollManager.getBuilder()
+                .customId("unload-" + COUNTER.incrementAndGet())
+                .name("Closed poll")
+                .duration(60_000L)
+                .creator(creator, "Tester")
+                .options(List.of("Yes", "No"))
+                .build();
+        UUID voter = UUID.randomUUID();
+        poll.start();
+        poll.castBallot(voter, Ballot.choice(0, 1));
+        poll.stop();
+        poll.markPersisted(poll.getVersion());
+
+        AtomicInteger reads = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        poll.setVoteLoader(new PollManager.VoteLoader() {
+            @Override
+            public void loadVotes(UUID pollId, BiConsumer<UUID, Integer> consumer) {
+                reads.incrementAndGet();
+                consumer.accept(voter, Ballot.choice(0, 1));
+            }
+
+            @Override
+            public boolean execute(Runnable task) {
+                return tasks.add(task);
+            }
+        });
+        assertTrue(poll.unloadVotes());
+
+        assertEquals(1, poll.getResults().voterCount());
+        assertFalse(poll.hasResidentVotes());
+        poll.requestVotes();
+        poll.requestVotes();
+        assertEquals(0, reads.get());
+        assertEquals(1, tasks.size());
+
+        tasks.get(0).run();
+
+        assertTrue(poll.hasResidentVotes());
+        assertTrue(poll.hasVoted(voter));
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void unloadedVotesAreReadInlineByHasVoted() {
+        PollManager.Poll poll = PollManager.getBuilder()
+                .customId("inline-" + COUNTER.incrementAndGet())
+                .name("Closed poll")
+                .duration(60_000L)
+                .creator(creator, "Tester")
+                .options(List.of("Yes", "No"))
+                .build();
+        UUID voter = UUID.randomUUID();
+        poll.start();
+        poll.castBallot(voter, Ballot.choice(1, 1));
+        poll.stop();
+        poll.markPersisted(poll.getVersion());
+        poll.setVoteLoader(new PollManager.VoteLoader() {
+            @Override
+            public void loadVotes(UUID pollId, BiConsumer<UUID, Integer> consumer) {
+                consumer.accept(voter, Ballot.choice(1, 1));
+            }
+
+            @Override
+            public boolean execute(Runnable task) {
+                return false;
+            }
+        });
+        assertTrue(poll.unloadVotes());
+
+        assertTrue(poll.hasVoted(voter));
+        assertEquals(Map.of(voter, Ballot.choice(1, 1)), poll.getVotes());
+    }
+
+    @Test
+    void stoppingClosedPollChangesNothing() {
+        PollManager.Poll poll = PollManager.getBuilder()
+                .customId("stop-" + COUNTER.incrementAndGet())
+                .name("Closed poll")
+                .duration(60_000L)
+                .creator(creator, "Tester")
+                .options(List.of("Yes", "No"))
+                .build();
+        poll.start();
+        assertTrue(PollManager.stopPoll(poll.getCustomId()));
+        long version = poll.getVersion();
+
+        assertFalse(poll.stop());
+        assertTrue(PollManager.stopPoll(poll.getCustomId()));
+        assertEquals(version, poll.getVersion());
+        assertFalse(poll.isActive());
+    }
+}
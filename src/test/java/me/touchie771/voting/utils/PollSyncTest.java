@@ -0,0 +1,157 @@
+package me.touchie771.voting.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class PollSyncTest {
+
+    private final UUID pollId = UUID.randomUUID();
+    private final UUID voter = UUID.randomUUID();
+    private final LocalSyncTransport.Hub hub = new LocalSyncTransport.Hub();
+    private final List<Node> nodes = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        nodes.forEach(node -> node.sync.shutdown());
+    }
+
+    @Test
+    void concurrentVoteAndUnvoteConverge() {
+        for (boolean firstFlushesFirst : new boolean[]{true, false}) {
+            Node first = new Node();
+            Node second = new Node();
+            first.vote(voter, 0);
+            first.sync.flush();
+
+            // Neither node has seen the other change when it makes its own
+            first.vote(voter, 1);
+            second.unvote(voter);
+            flush(firstFlushesFirst, first, second);
+
+            assertEquals(first.votes, second.votes);
+        }
+    }
+
+    @Test
+    void closeRacingVoteConverges() {
+        for (boolean firstFlushesFirst : new boolean[]{true, false}) {
+            Node first = new Node();
+            Node second = new Node();
+
+            first.stop();
+            second.vote(voter, 1);
+            flush(firstFlushesFirst, first, second);
+
+            assertFalse(first.active);
+            assertFalse(second.active);
+            assertEquals(first.votes, second.votes);
+        }
+    }
+
+    @Test
+    void closedPollStampsArePruned() {
+        Node first = new Node();
+        Node second = new Node();
+        first.vote(voter, 0);
+        first.stop();
+        first.sync.flush();
+
+        long later = System.currentTimeMillis() + PollSync.CLOSED_POLL_RETENTION_MILLIS;
+        first.sync.pruneClosedPolls(later);
+        second.sync.pruneClosedPolls(later);
+
+        assertEquals(0, first.sync.trackedVoters());
+        assertEquals(0, second.sync.trackedVoters());
+        assertEquals(Map.of(voter, 0), second.votes);
+    }
+
+    @Test
+    void voteArrivingAfterPruneIsRejected() {
+        Node first = new Node();
+        Node second = new Node();
+        first.vote(voter, 0);
+        first.stop();
+        first.sync.flush();
+        long later = System.currentTimeMillis() + PollSync.CLOSED_POLL_RETENTION_MILLIS;
+        first.sync.pruneClosedPolls(later);
+        second.sync.pruneClosedPolls(later);
+
+        // A server that never saw the close changes the vote long after it
+        Node late = new Node();
+        late.vote(voter, 1);
+        late.vote(UUID.randomUUID(), 2);
+        late.sync.flush();
+
+        assertEquals(Map.of(voter, 0), first.votes);
+        assertEquals(Map.of(voter, 0), second.votes);
+        assertEquals(0, first.sync.trackedVoters());
+    }
+
+    private static void flush(boolean firstFlushesFirst, Node first, Node second) {
+        if (firstFlushesFirst) {
+            first.sync.flush();
+            second.sync.flush();
+        } else {
+            second.sync.flush();
+            first.sync.flush();
+        }
+    }
+
+    private PollJournal.Event event(PollJournal.Type type, UUID voterId, int ballot) {
+        return new PollJournal.Event(type, pollId, voterId, ballot, 0, 0, null);
+    }
+
+    /**
+     * A server with a single poll, applying remote changes the way the poll manager does.
+     */
+    private final class Node {
+        private final Map<UUID, Integer> votes = new ConcurrentHashMap<>();
+        private volatile boolean active = true;
+        private final PollSync sync;
+
+        private Node() {
+            // Only flushed by the tests, and received batches are applied on the sending thread
+            sync = new PollSync(hub.connect(), Logger.getLogger("PollSyncTest"), this::apply, Runnable::run,
+                    60_000, Integer.MAX_VALUE);
+            sync.start();
+            nodes.add(this);
+        }
+
+        private void vote(UUID voterId, int ballot) {
+            if (!active) return;
+            votes.put(voterId, ballot);
+            sync.publish(event(PollJournal.Type.VOTE, voterId, ballot));
+        }
+
+        private void unvote(UUID voterId) {
+            if (votes.remove(voterId) != null) {
+                sync.publish(event(PollJournal.Type.UNVOTE, voterId, 0));
+            }
+        }
+
+        private void stop() {
+            active = false;
+            sync.publish(event(PollJournal.Type.STOP, null, 0));
+        }
+
+        private void apply(PollJournal.Event event) {
+            switch (event.type()) {
+                case VOTE -> votes.put(event.voterId(), event.option());
+                case UNVOTE -> votes.remove(event.voterId());
+                case START -> active = true;
+                case STOP -> active = false;
+                default -> { }
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package me.touchie771.voting.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RankedTallyTest {
+
+    @Test
+    void tieEliminatesOptionListedLast() {
+        RankedTally tally = new RankedTally(3);
+        add(tally, 2, 0);
+        add(tally, 1, 1, 0);
+        add(tally, 1, 2, 1, 0);
+
+        RankedTally.Runoff runoff = tally.runoff();
+
+        // Options 1 and 2 tie for last, so 2 goes and its ballot moves to 1
+        assertEquals(2, runoff.rounds().get(0).eliminatedOption());
+        RankedTally.Round second = runoff.rounds().get(1);
+        assertEquals(2, second.voteCount(0));
+        assertEquals(2, second.voteCount(1));
+        assertEquals(0, second.voteCount(2));
+        // Tied again, so 1 goes and its ballots move to 0
+        assertEquals(1, second.eliminatedOption());
+        assertEquals(4, runoff.finalRound().voteCount(0));
+        assertEquals(0, runoff.winner());
+    }
+
+    @Test
+    void exhaustedBallotsLeaveTheMajority() {
+        RankedTally tally = new RankedTally(3);
+        add(tally, 2, 0);
+        add(tally, 1, 1);
+        add(tally, 1, 2);
+
+        RankedTally.Runoff runoff = tally.runoff();
+
+        // 2 of 4 is no majority; once 2 is eliminated its ballot ranks nothing else
+        assertEquals(2, runoff.rounds().size());
+        RankedTally.Round last = runoff.finalRound();
+        assertEquals(1, last.exhaustedVotes());
+        assertEquals(3, last.continuingVotes());
+        assertEquals(-1, last.eliminatedOption());
+        assertEquals(0, runoff.winner());
+    }
+
+    @Test
+    void noBallotsHaveNoWinner() {
+        RankedTally tally = new RankedTally(2);
+        add(tally, 1, 0);
+        add(tally, -1, 0);
+
+        RankedTally.Runoff runoff = tally.runoff();
+
+        assertEquals(1, runoff.rounds().size());
+        assertEquals(-1, runoff.winner());
+    }
+
+    @Test
+    void runoffIsKeptUntilBallotChanges() {
+        RankedTally tally = new RankedTally(2);
+        add(tally, 1, 1, 0);
+        RankedTally.Runoff first = tally.runoff();
+
+        assertSame(first, tally.runoff());
+
+        add(tally, 2, 0);
+        assertEquals(0, tally.runoff().winner());
+    }
+
+    private static void add(RankedTally tally, int delta, Integer... preferences) {
+        int ballot = Ballot.ranking(List.of(preferences));
+        for (int i = 0; i < Math.abs(delta); i++) {
+            tally.add(ballot, Integer.signum(delta));
+        }
+    }
+}
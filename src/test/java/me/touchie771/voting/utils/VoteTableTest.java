@@ -0,0 +1,102 @@
+package me.touchie771.voting.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class VoteTableTest {
+
+    // A new table has 16 segments of 8 slots, picked by the top 4 and low 3 bits of the hash
+    private static final int SLOTS = 8;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void removalShiftsEntriesBackAcrossWrapAround() {
+        VoteTable table = new VoteTable();
+        UUID a = voterHomedAt(SLOTS - 2);
+        UUID b = voterHomedAt(SLOTS - 1);
+        UUID c = voterHomedAt(SLOTS - 1);
+        UUID d = voterHomedAt(0);
+        // c wraps around to slot 0, which pushes d to slot 1
+        table.put(a, 1);
+        table.put(b, 2);
+        table.put(c, 3);
+        table.put(d, 4);
+
+        assertEquals(2, table.remove(b));
+
+        assertFalse(table.contains(b));
+        assertEquals(1, table.get(a));
+        assertEquals(3, table.get(c));
+        assertEquals(4, table.get(d));
+        assertEquals(3, table.size());
+
+        // The slots freed by the shift are found and reused
+        assertEquals(3, table.remove(c));
+        assertEquals(4, table.get(d));
+        table.put(b, 5);
+        assertEquals(5, table.get(b));
+        assertEquals(4, table.get(d));
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    void segmentsGrowWithoutLosingVotes() {
+        VoteTable table = new VoteTable();
+        Map<UUID, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID voter = UUID.randomUUID();
+            assertEquals(-1, table.put(voter, i % 7));
+            expected.put(voter, i % 7);
+        }
+        assertEquals(expected.size(), table.size());
+        expected.forEach((voter, ballot) -> assertEquals((int) ballot, table.get(voter)));
+
+        int i = 0;
+        for (UUID voter : expected.keySet().toArray(new UUID[0])) {
+            if (i++ % 2 == 0) {
+                assertEquals((int) expected.remove(voter), table.remove(voter));
+            }
+        }
+        assertEquals(expected.size(), table.size());
+
+        VoteTable.Snapshot snapshot = table.snapshot();
+        Map<UUID, Integer> copied = new HashMap<>();
+        for (int slot = 0; slot < snapshot.size(); slot++) {
+            copied.put(snapshot.voterId(slot), snapshot.ballot(slot));
+        }
+        assertEquals(expected, copied);
+    }
+
+    @Test
+    void replacingVoteReturnsPreviousBallot() {
+        VoteTable table = new VoteTable();
+        UUID voter = UUID.randomUUID();
+
+        assertEquals(-1, table.put(voter, 0));
+        assertEquals(0, table.put(voter, 9));
+        assertEquals(1, table.size());
+        assertEquals(9, table.remove(voter));
+        assertEquals(-1, table.remove(voter));
+    }
+
+    /**
+     * Finds a voter stored in the first segment whose probe sequence starts at the given slot.
+     */
+    private UUID voterHomedAt(int slot) {
+        while (true) {
+            UUID voter = new UUID(random.nextLong(), random.nextLong());
+            int hash = VoteTable.hash(voter.getMostSignificantBits(), voter.getLeastSignificantBits());
+            if (hash >>> 28 == 0 && (hash & SLOTS - 1) == slot) {
+                return voter;
+            }
+        }
+    }
+}